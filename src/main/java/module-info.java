@@ -5,5 +5,9 @@ module netconex {
 
     exports qc.netconex;
     exports qc.netconex.error;
+    exports qc.netconex.journal;
     exports qc.netconex.request;
+    exports qc.netconex.transport;
+
+    provides java.net.spi.InetAddressResolverProvider with qc.netconex.transport.CachingResolverProvider;
 }
\ No newline at end of file
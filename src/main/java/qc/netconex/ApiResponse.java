@@ -0,0 +1,313 @@
+package qc.netconex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import qc.netconex.error.ApiRequestException;
+
+/**
+ * The {@code ApiResponse} class gives access to the status, the headers and the
+ * body of a response without copying them out of the connection up front.
+ *
+ * <p>
+ * Headers are only indexed, case-insensitively, the first time they are looked
+ * up. The body is read straight from the connection, once, either as a stream,
+ * as bytes, as a {@code String} or decoded into an object. Closing the response
+ * releases its connection, which goes back to the keep-alive pool when the body
+ * was read to the end or is small enough to be skipped; a response should
+ * therefore always be closed, typically with a try-with-resources statement.
+ *
+ * @author William Beaudin
+ */
+public final class ApiResponse implements AutoCloseable {
+
+    /**
+     * The connection the response was received on.
+     */
+    private final HttpURLConnection connection;
+
+    /**
+     * The status code of the response.
+     */
+    private final int statusCode;
+
+    /**
+     * The mapper used to decode the body.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The headers of the response, indexed on first use.
+     */
+    private Map<String, List<String>> headers;
+
+    /**
+     * The body of the response once it was opened, or {@code null}.
+     */
+    private InputStream body;
+
+    /**
+     * Whether the body was handed out already.
+     */
+    private boolean consumed;
+
+    /**
+     * Constructs a new {@code ApiResponse}.
+     *
+     * @param connection   The connection the response was received on.
+     * @param statusCode   The status code of the response.
+     * @param objectMapper The mapper used to decode the body.
+     */
+    ApiResponse(HttpURLConnection connection, int statusCode, ObjectMapper objectMapper) {
+        this.connection = connection;
+        this.statusCode = statusCode;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the status code of the response.
+     *
+     * @return The status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns all the headers of the response.
+     *
+     * @return An unmodifiable map of the header values by name, whose keys are
+     *         compared case-insensitively.
+     */
+    public Map<String, List<String>> getHeaders() {
+        if (headers == null) {
+            Map<String, List<String>> index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+                // The status line is reported under a null name.
+                if (header.getKey() != null) {
+                    index.merge(header.getKey(), header.getValue(), (first, second) -> {
+                        List<String> merged = new ArrayList<>(first);
+                        merged.addAll(second);
+                        return Collections.unmodifiableList(merged);
+                    });
+                }
+            }
+            headers = Collections.unmodifiableMap(index);
+        }
+        return headers;
+    }
+
+    /**
+     * Returns the value of a header.
+     *
+     * @param name The name of the header, in any case.
+     * @return The first value of the header, or {@code null} if it is absent.
+     */
+    public String getHeader(String name) {
+        List<String> values = getHeaders().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Returns every value of a header.
+     *
+     * @param name The name of the header, in any case.
+     * @return The values of the header, empty if it is absent.
+     */
+    public List<String> getHeaderValues(String name) {
+        return getHeaders().getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * Returns the length of the body declared by the server.
+     *
+     * @return The length in bytes, or {@code -1} if it is unknown.
+     */
+    public long getContentLength() {
+        return connection.getContentLengthLong();
+    }
+
+    /**
+     * Returns the media type of the body.
+     *
+     * @return The {@code Content-Type} header, or {@code null} if it is absent.
+     */
+    public String getContentType() {
+        return connection.getContentType();
+    }
+
+    /**
+     * Returns the charset of the body.
+     *
+     * @return The charset declared by the {@code Content-Type} header, UTF-8 if
+     *         there is none.
+     */
+    public Charset getCharset() {
+        return charsetOf(getContentType());
+    }
+
+    /**
+     * Returns the body as a stream read straight from the connection. Closing
+     * the stream releases the connection, same as closing the response.
+     *
+     * @return The body stream.
+     * @throws ApiRequestException If the body was already read or cannot be
+     *                             opened.
+     */
+    public InputStream readBody() throws ApiRequestException {
+        if (consumed) {
+            throw new ApiRequestException("The body of the response was already read");
+        }
+        consumed = true;
+        try {
+            return open();
+        } catch (IOException e) {
+            throw new ApiRequestException("Error reading response body", e);
+        }
+    }
+
+    /**
+     * Reads the whole body. When the server declares the length of the body,
+     * it is read directly into an array of that size.
+     *
+     * @return The body bytes.
+     * @throws ApiRequestException If the body was already read or cannot be
+     *                             read.
+     */
+    public byte[] readBytes() throws ApiRequestException {
+        long length = getContentLength();
+        try (InputStream in = readBody()) {
+            if (length < 0 || length > Integer.MAX_VALUE - 8) {
+                return in.readAllBytes();
+            }
+            // The connection never reads past the declared length.
+            return in.readNBytes((int) length);
+        } catch (IOException e) {
+            throw new ApiRequestException("Error reading response body", e);
+        }
+    }
+
+    /**
+     * Reads the whole body as text, decoded with the charset of the response.
+     *
+     * @return The body text.
+     * @throws ApiRequestException If the body was already read or cannot be
+     *                             read.
+     */
+    public String readString() throws ApiRequestException {
+        return new String(readBytes(), getCharset());
+    }
+
+    /**
+     * Decodes the JSON body into the given type, straight from the connection.
+     * A UTF-8 body is parsed from its bytes, without being decoded to text
+     * first.
+     *
+     * @param <T>  The type to decode the body into.
+     * @param type The class of the type.
+     * @return The decoded body.
+     * @throws ApiRequestException If the body was already read or cannot be
+     *                             decoded.
+     */
+    public <T> T readValue(Class<T> type) throws ApiRequestException {
+        Charset charset = getCharset();
+        try (InputStream in = readBody()) {
+            return charset.equals(StandardCharsets.UTF_8) ? objectMapper.readValue(in, type)
+                    : objectMapper.readValue(new InputStreamReader(in, charset), type);
+        } catch (IOException e) {
+            throw new ApiRequestException("Error decoding response body", e);
+        }
+    }
+
+    /**
+     * Decodes the JSON body into the given generic type, straight from the
+     * connection.
+     *
+     * @param <T>  The type to decode the body into.
+     * @param type The reference to the type.
+     * @return The decoded body.
+     * @throws ApiRequestException If the body was already read or cannot be
+     *                             decoded.
+     */
+    public <T> T readValue(TypeReference<T> type) throws ApiRequestException {
+        Charset charset = getCharset();
+        try (InputStream in = readBody()) {
+            return charset.equals(StandardCharsets.UTF_8) ? objectMapper.readValue(in, type)
+                    : objectMapper.readValue(new InputStreamReader(in, charset), type);
+        } catch (IOException e) {
+            throw new ApiRequestException("Error decoding response body", e);
+        }
+    }
+
+    /**
+     * Releases the connection. A body that was not read is skipped if it is
+     * small enough, otherwise the connection is dropped.
+     */
+    @Override
+    public void close() {
+        try {
+            InputStream in = consumed ? body : open();
+            consumed = true;
+            if (in != null) {
+                in.close();
+            }
+        } catch (IOException e) {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ApiResponse[" + connection.getRequestMethod() + " " + connection.getURL() + " -> " + statusCode + "]";
+    }
+
+    /**
+     * Returns the charset declared by a {@code Content-Type} header.
+     *
+     * @param contentType The header value, or {@code null}.
+     * @return The declared charset, UTF-8 if there is none or it is not
+     *         supported.
+     */
+    public static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(trimmed.substring(8).replace("\"", ""));
+                    } catch (IllegalArgumentException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Opens the body stream, or returns an empty one when there is no body.
+     *
+     * @return The body stream.
+     * @throws IOException If the body cannot be opened.
+     */
+    private InputStream open() throws IOException {
+        if (body == null) {
+            InputStream in = statusCode >= HttpURLConnection.HTTP_BAD_REQUEST ? connection.getErrorStream()
+                    : connection.getInputStream();
+            body = in == null ? InputStream.nullInputStream() : in;
+        }
+        return body;
+    }
+}
@@ -0,0 +1,118 @@
+package qc.netconex;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Deadline} class represents the point in time by which a call must
+ * be done, to propagate the deadline of an incoming request to the requests it
+ * makes.
+ *
+ * @author William Beaudin
+ */
+public final class Deadline {
+
+    /**
+     * The executor cancelling the exchanges whose deadline expired.
+     */
+    private static final ScheduledThreadPoolExecutor WATCHDOG;
+
+    static {
+        WATCHDOG = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "netconex-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        WATCHDOG.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * The {@link System#nanoTime()} of the deadline.
+     */
+    private final long nanoTime;
+
+    /**
+     * Constructs a new {@code Deadline}.
+     *
+     * @param nanoTime The {@link System#nanoTime()} of the deadline.
+     */
+    private Deadline(long nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns a deadline expiring after the given duration.
+     *
+     * @param duration The duration from now.
+     * @return The deadline.
+     */
+    public static Deadline after(Duration duration) {
+        return after(duration.toMillis());
+    }
+
+    /**
+     * Returns a deadline expiring after the given number of milliseconds.
+     *
+     * @param millis The number of milliseconds from now.
+     * @return The deadline.
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Returns a deadline expiring at the given instant.
+     *
+     * @param instant The instant of the deadline.
+     * @return The deadline.
+     */
+    public static Deadline at(Instant instant) {
+        return after(Duration.between(Instant.now(), instant));
+    }
+
+    /**
+     * Returns the time left before the deadline.
+     *
+     * @return The time left in milliseconds, negative once expired.
+     */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanoTime - System.nanoTime());
+    }
+
+    /**
+     * Returns whether the deadline has passed.
+     *
+     * @return {@code true} if it expired.
+     */
+    public boolean isExpired() {
+        return nanoTime - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the earlier of this deadline and the given one.
+     *
+     * @param other The other deadline, or {@code null}.
+     * @return The earlier deadline.
+     */
+    public Deadline min(Deadline other) {
+        return other == null || nanoTime - other.nanoTime <= 0 ? this : other;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[" + remainingMillis() + "ms left]";
+    }
+
+    /**
+     * Runs the given task once the deadline expires.
+     *
+     * @param task The task to run.
+     * @return The scheduled task, to cancel once no longer needed.
+     */
+    ScheduledFuture<?> schedule(Runnable task) {
+        return WATCHDOG.schedule(task, nanoTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,185 @@
+package qc.netconex;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code Endpoint} class represents one base URL of a {@link LoadBalancer}
+ * along with the statistics used to balance requests and eject outliers.
+ *
+ * @author William Beaudin
+ */
+public final class Endpoint {
+
+    /**
+     * The weight of the latest sample in the latency moving average.
+     */
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    /**
+     * The base URL of the endpoint.
+     */
+    private final String baseUrl;
+
+    /**
+     * The number of requests in flight.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The number of consecutive failed requests.
+     */
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /**
+     * The moving average of the latency in milliseconds.
+     */
+    private volatile double latency;
+
+    /**
+     * The number of latency samples since the endpoint was last reinstated.
+     */
+    private volatile int samples;
+
+    /**
+     * The {@link System#nanoTime()} until which the endpoint is ejected.
+     */
+    private volatile long ejectedUntil;
+
+    /**
+     * Whether the last active health check of the endpoint failed.
+     */
+    private volatile boolean unhealthy;
+
+    /**
+     * Constructs a new {@code Endpoint} for the given base URL.
+     *
+     * @param baseUrl The base URL of the endpoint.
+     */
+    Endpoint(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Returns the base URL of the endpoint.
+     *
+     * @return The base URL.
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Returns the number of requests in flight to the endpoint.
+     *
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the moving average of the latency of the endpoint.
+     *
+     * @return The latency in milliseconds, {@code 0} before any request
+     *         completed.
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns whether the endpoint currently receives requests.
+     *
+     * @return {@code false} if the endpoint is ejected or failed its last health
+     *         check.
+     */
+    public boolean isAvailable() {
+        return isAvailable(System.nanoTime());
+    }
+
+    @Override
+    public String toString() {
+        return "Endpoint[" + baseUrl + ", inFlight=" + getInFlight() + ", latency=" + Math.round(latency)
+                + "ms, available=" + isAvailable() + "]";
+    }
+
+    /**
+     * Returns whether the endpoint receives requests at the given time.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return {@code true} if the endpoint is available.
+     */
+    boolean isAvailable(long now) {
+        return !unhealthy && now - ejectedUntil >= 0;
+    }
+
+    /**
+     * Returns the number of latency samples since the endpoint was reinstated.
+     *
+     * @return The number of samples.
+     */
+    int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Records the start of a request.
+     */
+    void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a request.
+     *
+     * @param latencyMillis The latency of the request in milliseconds, or
+     *                      {@code -1} if it is not a latency sample.
+     * @param success       Whether the endpoint answered properly.
+     * @return The number of consecutive failures, {@code 0} on success.
+     */
+    int end(long latencyMillis, boolean success) {
+        inFlight.decrementAndGet();
+        if (!success) {
+            return consecutiveFailures.incrementAndGet();
+        }
+        consecutiveFailures.set(0);
+        if (latencyMillis < 0) {
+            return 0;
+        }
+        synchronized (this) {
+            latency = samples == 0 ? latencyMillis : latency + LATENCY_WEIGHT * (latencyMillis - latency);
+            samples++;
+        }
+        return 0;
+    }
+
+    /**
+     * Records the end of a request without an outcome to report: one the
+     * client cancelled before its outcome was known, or a stream whose outcome
+     * was recorded when it opened.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Ejects the endpoint until the given time. Its statistics are reset so it
+     * starts afresh once reinstated.
+     *
+     * @param until The {@link System#nanoTime()} until which it is ejected.
+     */
+    synchronized void eject(long until) {
+        ejectedUntil = until;
+        consecutiveFailures.set(0);
+        samples = 0;
+    }
+
+    /**
+     * Sets the result of the last active health check.
+     *
+     * @param healthy Whether the health check succeeded.
+     */
+    void setHealthy(boolean healthy) {
+        this.unhealthy = !healthy;
+    }
+}
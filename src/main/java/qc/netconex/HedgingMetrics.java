@@ -0,0 +1,109 @@
+package qc.netconex;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code HedgingMetrics} class counts what a {@link HedgingPolicy} did,
+ * to tell whether hedging pays off for a given upstream.
+ *
+ * @author William Beaudin
+ */
+public final class HedgingMetrics {
+
+    /**
+     * The number of requests executed under the policy.
+     */
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * The number of hedged requests sent.
+     */
+    private final LongAdder hedgesSent = new LongAdder();
+
+    /**
+     * The number of requests answered by a hedge first.
+     */
+    private final LongAdder hedgesWon = new LongAdder();
+
+    /**
+     * The number of hedges skipped because the budget was exhausted.
+     */
+    private final LongAdder hedgesDenied = new LongAdder();
+
+    /**
+     * Metrics are only created by their policy.
+     */
+    HedgingMetrics() {
+    }
+
+    /**
+     * Returns the number of requests executed under the policy.
+     *
+     * @return The number of requests.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of hedged requests sent.
+     *
+     * @return The number of hedges.
+     */
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    /**
+     * Returns the number of requests answered by a hedge before the original
+     * request.
+     *
+     * @return The number of hedges that won.
+     */
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * Returns the number of hedges skipped because the budget was exhausted.
+     *
+     * @return The number of denied hedges.
+     */
+    public long getHedgesDenied() {
+        return hedgesDenied.sum();
+    }
+
+    /**
+     * Records a request executed under the policy.
+     */
+    void recordRequest() {
+        requests.increment();
+    }
+
+    /**
+     * Records a hedged request sent.
+     */
+    void recordHedgeSent() {
+        hedgesSent.increment();
+    }
+
+    /**
+     * Records a request answered by a hedge first.
+     */
+    void recordHedgeWon() {
+        hedgesWon.increment();
+    }
+
+    /**
+     * Records a hedge skipped because the budget was exhausted.
+     */
+    void recordHedgeDenied() {
+        hedgesDenied.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingMetrics[requests=" + getRequests() + ", hedgesSent=" + getHedgesSent() + ", hedgesWon="
+                + getHedgesWon() + ", hedgesDenied=" + getHedgesDenied() + "]";
+    }
+}
@@ -0,0 +1,275 @@
+package qc.netconex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code HedgingPolicy} class configures hedged requests: when no response
+ * has arrived after a given delay, a duplicate request is sent, optionally to
+ * an alternate base URL, and whichever answers first is used while the others
+ * are cancelled.
+ *
+ * <p>
+ * The delay is either fixed or follows a percentile of the latencies observed
+ * under the policy, so only the slowest requests get hedged. A budget caps the
+ * extra load: every request earns a fraction of a hedge, and a hedge is only
+ * sent when a whole one has been earned.
+ *
+ * <p>
+ * Hedging is only applied to idempotent requests. A policy can be shared by
+ * several {@link NetConex} instances, its latencies and budget are then shared
+ * too.
+ *
+ * @author William Beaudin
+ */
+public class HedgingPolicy {
+
+    /**
+     * The number of latency samples kept to compute the percentile.
+     */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * The number of samples required before the percentile replaces the
+     * configured delay.
+     */
+    private static final int MIN_SAMPLES = 32;
+
+    /**
+     * The number of samples recorded between two percentile computations.
+     */
+    private static final int REFRESH_INTERVAL = 64;
+
+    /**
+     * The maximum number of hedges that can be saved up in the budget.
+     */
+    private static final double MAX_BUDGET = 10;
+
+    /**
+     * The delay in milliseconds before sending a hedge, used until enough
+     * latencies are observed when a percentile is set.
+     */
+    private long delay;
+
+    /**
+     * The percentile of the observed latencies used as delay, {@code 0} to
+     * always use the fixed delay.
+     */
+    private double percentile;
+
+    /**
+     * The maximum number of hedges sent for a single request.
+     */
+    private int maxHedges = 1;
+
+    /**
+     * The fraction of a hedge earned by every request.
+     */
+    private double budgetRatio = 0.1;
+
+    /**
+     * The alternate base URLs hedges are sent to, in turn.
+     */
+    private List<String> alternateBaseUrls = new ArrayList<>();
+
+    /**
+     * The metrics of the policy.
+     */
+    private final HedgingMetrics metrics = new HedgingMetrics();
+
+    /**
+     * The last latencies observed in milliseconds, used as a ring buffer.
+     */
+    private final long[] samples = new long[SAMPLE_SIZE];
+
+    /**
+     * The total number of latencies observed.
+     */
+    private long sampleCount;
+
+    /**
+     * The percentile of the latencies as of the last computation, or
+     * {@code -1}.
+     */
+    private volatile long observedDelay = -1;
+
+    /**
+     * The hedges currently available in the budget.
+     */
+    private double budget = 1;
+
+    /**
+     * Constructs a new {@code HedgingPolicy} with the specified delay.
+     *
+     * @param delay The delay in milliseconds before sending a hedge.
+     */
+    public HedgingPolicy(long delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * Returns the delay before sending a hedge.
+     *
+     * @return The configured delay in milliseconds.
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Sets the delay before sending a hedge. When a percentile is set, this is
+     * only used until enough latencies have been observed.
+     *
+     * @param delay The delay in milliseconds.
+     */
+    public void setDelay(long delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * Returns the percentile of the observed latencies used as delay.
+     *
+     * @return The percentile, between {@code 0} and {@code 1}, {@code 0} if the
+     *         fixed delay is used.
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Sets the percentile of the observed latencies used as delay, for example
+     * {@code 0.95} to hedge the requests slower than the p95.
+     *
+     * @param percentile The percentile, between {@code 0} and {@code 1},
+     *                   {@code 0} to always use the fixed delay.
+     */
+    public void setPercentile(double percentile) {
+        if (percentile < 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+        }
+        this.percentile = percentile;
+    }
+
+    /**
+     * Returns the maximum number of hedges sent for a single request.
+     *
+     * @return The maximum number of hedges.
+     */
+    public int getMaxHedges() {
+        return maxHedges;
+    }
+
+    /**
+     * Sets the maximum number of hedges sent for a single request. Each one is
+     * sent after the delay has elapsed again.
+     *
+     * @param maxHedges The maximum number of hedges.
+     */
+    public void setMaxHedges(int maxHedges) {
+        this.maxHedges = maxHedges;
+    }
+
+    /**
+     * Returns the fraction of a hedge earned by every request.
+     *
+     * @return The budget ratio.
+     */
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    /**
+     * Sets the fraction of a hedge earned by every request, {@code 0.1} meaning
+     * hedges add at most 10% to the load over time.
+     *
+     * @param budgetRatio The budget ratio.
+     */
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    /**
+     * Returns the alternate base URLs hedges are sent to.
+     *
+     * @return The alternate base URLs.
+     */
+    public List<String> getAlternateBaseUrls() {
+        return alternateBaseUrls;
+    }
+
+    /**
+     * Sets the alternate base URLs hedges are sent to, in turn. When empty,
+     * hedges are sent to the base URL of the request.
+     *
+     * @param alternateBaseUrls The alternate base URLs.
+     */
+    public void setAlternateBaseUrls(String... alternateBaseUrls) {
+        this.alternateBaseUrls = new ArrayList<>(Arrays.asList(alternateBaseUrls));
+    }
+
+    /**
+     * Returns the metrics of the policy.
+     *
+     * @return The metrics.
+     */
+    public HedgingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the delay to wait before sending the next hedge.
+     *
+     * @return The delay in milliseconds.
+     */
+    long currentDelay() {
+        long observed = observedDelay;
+        return percentile > 0 && observed >= 0 ? observed : delay;
+    }
+
+    /**
+     * Records the start of a request and adds its share to the budget.
+     */
+    synchronized void recordRequest() {
+        metrics.recordRequest();
+        budget = Math.min(MAX_BUDGET, budget + budgetRatio);
+    }
+
+    /**
+     * Takes a hedge from the budget.
+     *
+     * @return {@code true} if a hedge may be sent.
+     */
+    synchronized boolean tryAcquireHedge() {
+        if (budget < 1) {
+            metrics.recordHedgeDenied();
+            return false;
+        }
+        budget -= 1;
+        metrics.recordHedgeSent();
+        return true;
+    }
+
+    /**
+     * Records the latency of a successful request, from the start of the call
+     * to the first answer, whichever attempt gave it.
+     *
+     * @param latency The latency in milliseconds.
+     */
+    void recordLatency(long latency) {
+        if (percentile <= 0) {
+            return;
+        }
+        long[] snapshot = null;
+        synchronized (this) {
+            samples[(int) (sampleCount++ % SAMPLE_SIZE)] = latency;
+            if (sampleCount >= MIN_SAMPLES && (sampleCount == MIN_SAMPLES || sampleCount % REFRESH_INTERVAL == 0)) {
+                snapshot = Arrays.copyOf(samples, (int) Math.min(sampleCount, SAMPLE_SIZE));
+            }
+        }
+        if (snapshot != null) {
+            Arrays.sort(snapshot);
+            observedDelay = snapshot[(int) Math.min(snapshot.length - 1, Math.floor(percentile * snapshot.length))];
+        }
+    }
+}
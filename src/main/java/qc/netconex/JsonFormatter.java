@@ -0,0 +1,162 @@
+package qc.netconex;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The {@code JsonFormatter} class pretty-prints JSON by copying parser events
+ * straight to a generator, without materializing the document.
+ *
+ * <p>
+ * Memory use stays constant whatever the size of the input, and the truncated
+ * mode stops reading as soon as its limit is reached, so its cost is
+ * proportional to the output rather than to the input.
+ *
+ * @author William Beaudin
+ */
+final class JsonFormatter {
+
+    /**
+     * The marker appended to the output when it was truncated.
+     */
+    static final String TRUNCATION_MARKER = System.lineSeparator() + "... (truncated)";
+
+    /**
+     * The factory used to create parsers and generators.
+     */
+    private final JsonFactory factory;
+
+    /**
+     * Constructs a new {@code JsonFormatter} using the given factory.
+     *
+     * @param factory The factory used to create parsers and generators.
+     */
+    JsonFormatter(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Pretty-prints every event of the parser to the generator.
+     *
+     * @param parser    The parser to read from.
+     * @param generator The generator to write to.
+     * @throws IOException If the input cannot be parsed or the output written.
+     */
+    void format(JsonParser parser, JsonGenerator generator) throws IOException {
+        generator.useDefaultPrettyPrinter();
+        while (parser.nextToken() != null) {
+            generator.copyCurrentEvent(parser);
+        }
+        generator.flush();
+    }
+
+    /**
+     * Pretty-prints the events of the parser to the output stream, stopping once
+     * either limit is reached. Open arrays and objects are closed so the output
+     * stays readable, and {@link #TRUNCATION_MARKER} is appended.
+     *
+     * <p>
+     * The byte limit is checked between values, so the output can exceed it by
+     * the size of the last value written and of the closing brackets.
+     *
+     * @param parser      The parser to read from.
+     * @param out         The output stream to write to.
+     * @param maxBytes    The maximum number of bytes to write.
+     * @param maxElements The maximum number of values (scalars, arrays and
+     *                    objects) to write.
+     * @return {@code true} if the output was truncated.
+     * @throws IOException If the input cannot be parsed or the output written.
+     */
+    boolean formatTruncated(JsonParser parser, OutputStream out, long maxBytes, long maxElements)
+            throws IOException {
+        CountingOutputStream counter = new CountingOutputStream(out);
+        boolean truncated = false;
+        try (JsonGenerator generator = factory.createGenerator(counter, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.useDefaultPrettyPrinter();
+
+            long elements = 0;
+            boolean afterFieldName = false;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                boolean isValue = token.isScalarValue() || token.isStructStart();
+                if (!afterFieldName && (isValue || token == JsonToken.FIELD_NAME)) {
+                    long written = counter.count + generator.getOutputBuffered();
+                    if (written >= maxBytes || (isValue && elements >= maxElements)) {
+                        closeOpenContexts(generator);
+                        truncated = true;
+                        break;
+                    }
+                }
+                if (isValue) {
+                    elements++;
+                }
+                afterFieldName = token == JsonToken.FIELD_NAME;
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        if (truncated) {
+            out.write(TRUNCATION_MARKER.getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+        return truncated;
+    }
+
+    /**
+     * Closes every array and object still open in the generator.
+     *
+     * @param generator The generator to close the contexts of.
+     * @throws IOException If the output cannot be written.
+     */
+    private static void closeOpenContexts(JsonGenerator generator) throws IOException {
+        JsonStreamContext context = generator.getOutputContext();
+        while (context != null && !context.inRoot()) {
+            if (context.inArray()) {
+                generator.writeEndArray();
+            } else {
+                generator.writeEndObject();
+            }
+            context = generator.getOutputContext();
+        }
+    }
+
+    /**
+     * An output stream counting the bytes written through it.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        /**
+         * The number of bytes written so far.
+         */
+        private long count;
+
+        /**
+         * Constructs a new counting stream over the given output stream.
+         *
+         * @param out The underlying output stream.
+         */
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
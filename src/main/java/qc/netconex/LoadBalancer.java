@@ -0,0 +1,341 @@
+package qc.netconex;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code LoadBalancer} class spreads the requests of a {@link NetConex}
+ * instance over several base URLs serving the same API.
+ *
+ * <p>
+ * Endpoints are picked according to a {@link LoadBalancingPolicy}, among the
+ * ones currently available. Outliers are ejected passively, for a while, after
+ * too many consecutive failures or when their latency grows far above the one
+ * of the other endpoints. Active health checks can also be enabled to take
+ * endpoints out of rotation until they answer again. Ejections never leave
+ * less than half of the endpoints available, and if none is available the
+ * requests are spread over all of them anyway.
+ *
+ * @author William Beaudin
+ */
+public class LoadBalancer implements AutoCloseable {
+
+    /**
+     * The number of latency samples an endpoint needs before it can be ejected
+     * for being slow.
+     */
+    private static final int MIN_LATENCY_SAMPLES = 10;
+
+    /**
+     * The endpoints requests are spread over.
+     */
+    private final List<Endpoint> endpoints;
+
+    /**
+     * The policy used to pick endpoints.
+     */
+    private final LoadBalancingPolicy policy;
+
+    /**
+     * The position of the next endpoint for round-robin.
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * The number of consecutive failures after which an endpoint is ejected,
+     * {@code 0} to disable.
+     */
+    private int maxConsecutiveFailures = 5;
+
+    /**
+     * How many times slower than the median an endpoint must be to get
+     * ejected, {@code 0} to disable.
+     */
+    private double latencyEjectionFactor = 3;
+
+    /**
+     * How long an outlier stays ejected, in milliseconds.
+     */
+    private long ejectionTime = 30000;
+
+    /**
+     * The executor running the active health checks, or {@code null}.
+     */
+    private ScheduledExecutorService healthChecker;
+
+    /**
+     * Constructs a new {@code LoadBalancer} over the given base URLs.
+     *
+     * @param baseUrls The base URLs to spread the requests over.
+     * @param policy   The policy used to pick endpoints.
+     */
+    public LoadBalancer(List<String> baseUrls, LoadBalancingPolicy policy) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one base URL is required");
+        }
+        List<Endpoint> list = new ArrayList<>(baseUrls.size());
+        for (String baseUrl : baseUrls) {
+            list.add(new Endpoint(baseUrl));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+        this.policy = policy;
+    }
+
+    /**
+     * Returns the endpoints requests are spread over.
+     *
+     * @return The endpoints, with their statistics.
+     */
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Returns the policy used to pick endpoints.
+     *
+     * @return The policy.
+     */
+    public LoadBalancingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets the number of consecutive failures, connection errors or 5xx
+     * responses, after which an endpoint is ejected.
+     *
+     * @param maxConsecutiveFailures The number of failures, {@code 0} to
+     *                               disable.
+     */
+    public void setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    /**
+     * Sets how many times slower than the median of the endpoints an endpoint
+     * must get to be ejected.
+     *
+     * @param latencyEjectionFactor The factor, {@code 0} to disable.
+     */
+    public void setLatencyEjectionFactor(double latencyEjectionFactor) {
+        this.latencyEjectionFactor = latencyEjectionFactor;
+    }
+
+    /**
+     * Sets how long an outlier stays ejected.
+     *
+     * @param ejectionTime The time in milliseconds.
+     */
+    public void setEjectionTime(long ejectionTime) {
+        this.ejectionTime = ejectionTime;
+    }
+
+    /**
+     * Starts checking every endpoint periodically with a GET request on the
+     * given path. An endpoint not answering with a 2xx or 3xx status is taken
+     * out of rotation until a later check succeeds.
+     *
+     * @param path     The path of the health check, relative to the base URLs.
+     * @param interval The time between two checks in milliseconds.
+     */
+    public synchronized void enableHealthChecks(String path, long interval) {
+        disableHealthChecks();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "netconex-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int timeout = (int) Math.min(Integer.MAX_VALUE, interval);
+        healthChecker.scheduleWithFixedDelay(() -> {
+            for (Endpoint endpoint : endpoints) {
+                endpoint.setHealthy(probe(endpoint, path, timeout));
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the active health checks and puts every endpoint they took out back
+     * in rotation.
+     */
+    public synchronized void disableHealthChecks() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+            healthChecker = null;
+            for (Endpoint endpoint : endpoints) {
+                endpoint.setHealthy(true);
+            }
+        }
+    }
+
+    /**
+     * Stops the active health checks.
+     */
+    @Override
+    public void close() {
+        disableHealthChecks();
+    }
+
+    /**
+     * Picks the endpoint of the next request.
+     *
+     * @return The endpoint.
+     */
+    Endpoint select() {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        long now = System.nanoTime();
+        List<Endpoint> available = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                available.add(endpoint);
+            }
+        }
+        if (available.isEmpty()) {
+            available = endpoints;
+        }
+
+        switch (policy) {
+            case LEAST_IN_FLIGHT: {
+                int start = Math.floorMod(next.getAndIncrement(), available.size());
+                Endpoint best = null;
+                for (int i = 0; i < available.size(); i++) {
+                    Endpoint candidate = available.get((start + i) % available.size());
+                    if (best == null || candidate.getInFlight() < best.getInFlight()) {
+                        best = candidate;
+                    }
+                }
+                return best;
+            }
+            case POWER_OF_TWO_CHOICES: {
+                if (available.size() == 1) {
+                    return available.get(0);
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int first = random.nextInt(available.size());
+                int second = random.nextInt(available.size() - 1);
+                if (second >= first) {
+                    second++;
+                }
+                Endpoint a = available.get(first);
+                Endpoint b = available.get(second);
+                return load(a) <= load(b) ? a : b;
+            }
+            case ROUND_ROBIN:
+            default:
+                return available.get(Math.floorMod(next.getAndIncrement(), available.size()));
+        }
+    }
+
+    /**
+     * Records the end of a request to an endpoint and ejects it if it turned
+     * into an outlier.
+     *
+     * @param endpoint      The endpoint.
+     * @param latencyMillis The latency of the request in milliseconds, or
+     *                      {@code -1} if it is not a latency sample.
+     * @param success       Whether the endpoint answered properly.
+     */
+    void record(Endpoint endpoint, long latencyMillis, boolean success) {
+        int failures = endpoint.end(latencyMillis, success);
+        if (endpoints.size() == 1) {
+            return;
+        }
+        if (!success) {
+            if (maxConsecutiveFailures > 0 && failures >= maxConsecutiveFailures) {
+                eject(endpoint);
+            }
+        } else if (latencyMillis >= 0 && latencyEjectionFactor > 0 && endpoint.getSamples() >= MIN_LATENCY_SAMPLES
+                && endpoint.getLatency() > latencyEjectionFactor * medianLatency()) {
+            eject(endpoint);
+        }
+    }
+
+    /**
+     * Ejects an endpoint, unless that would leave less than half of the
+     * endpoints available.
+     *
+     * @param endpoint The endpoint to eject.
+     */
+    private synchronized void eject(Endpoint endpoint) {
+        long now = System.nanoTime();
+        int available = 0;
+        for (Endpoint other : endpoints) {
+            if (other.isAvailable(now)) {
+                available++;
+            }
+        }
+        if (endpoint.isAvailable(now) && (available - 1) * 2 >= endpoints.size()) {
+            endpoint.eject(now + TimeUnit.MILLISECONDS.toNanos(ejectionTime));
+        }
+    }
+
+    /**
+     * Returns the median latency of the available endpoints that have one.
+     *
+     * @return The median latency in milliseconds.
+     */
+    private double medianLatency() {
+        long now = System.nanoTime();
+        double[] latencies = new double[endpoints.size()];
+        int count = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now) && endpoint.getSamples() > 0) {
+                latencies[count++] = endpoint.getLatency();
+            }
+        }
+        if (count == 0) {
+            return Double.MAX_VALUE;
+        }
+        Arrays.sort(latencies, 0, count);
+        return latencies[count / 2];
+    }
+
+    /**
+     * Returns the load of an endpoint for the power of two choices.
+     *
+     * @param endpoint The endpoint.
+     * @return Its requests in flight weighted by its latency.
+     */
+    private static double load(Endpoint endpoint) {
+        return (endpoint.getInFlight() + 1) * Math.max(1, endpoint.getLatency());
+    }
+
+    /**
+     * Checks the health of an endpoint.
+     *
+     * @param endpoint The endpoint.
+     * @param path     The path of the health check.
+     * @param timeout  The connect and read timeout in milliseconds.
+     * @return {@code true} if the endpoint answered with a 2xx or 3xx status.
+     */
+    private static boolean probe(Endpoint endpoint, String path, int timeout) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URI(endpoint.getBaseUrl() + path).toURL().openConnection();
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setInstanceFollowRedirects(false);
+            int responseCode = connection.getResponseCode();
+            InputStream body = responseCode < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body != null) {
+                body.close();
+            }
+            return responseCode >= 200 && responseCode < 400;
+        } catch (Exception e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return false;
+        }
+    }
+}
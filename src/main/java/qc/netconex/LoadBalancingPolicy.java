@@ -0,0 +1,25 @@
+package qc.netconex;
+
+/**
+ * The {@code LoadBalancingPolicy} enum lists the ways a {@link LoadBalancer}
+ * can pick the endpoint of the next request.
+ *
+ * @author William Beaudin
+ */
+public enum LoadBalancingPolicy {
+    /**
+     * Each endpoint in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * The endpoint with the fewest requests in flight.
+     */
+    LEAST_IN_FLIGHT,
+
+    /**
+     * The better of two endpoints picked at random, comparing their requests in
+     * flight weighted by their observed latency.
+     */
+    POWER_OF_TWO_CHOICES
+}
@@ -1,30 +1,59 @@
 package qc.netconex;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.StringWriter;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.DeadlineExceededException;
+import qc.netconex.error.HttpStatusCodeException;
 import qc.netconex.error.JsonFormattingException;
 import qc.netconex.error.JsonParsingException;
+import qc.netconex.journal.RequestJournal;
 import qc.netconex.request.Delete;
 import qc.netconex.request.Get;
 import qc.netconex.request.Methods;
 import qc.netconex.request.Post;
 import qc.netconex.request.Put;
+import qc.netconex.transport.DnsCache;
 
 /**
  * The {@code NetConex} class provides functionality to make HTTP requests.
@@ -38,6 +67,12 @@ import qc.netconex.request.Put;
  * @version 1.1
  */
 public class NetConex implements Methods {
+    /**
+     * The longest time in milliseconds a warm-up connection may take to
+     * connect or to be answered, whatever the timeouts of the requests.
+     */
+    private static final int WARM_UP_TIMEOUT = 10_000;
+
     /**
      * The base URL for HTTP requests.
      */
@@ -58,6 +93,44 @@ public class NetConex implements Methods {
      */
     private int timeout;
 
+    /**
+     * The hedging policy applied to idempotent requests, or {@code null}.
+     */
+    private HedgingPolicy hedgingPolicy;
+
+    /**
+     * The load balancer spreading requests over several base URLs, or
+     * {@code null}.
+     */
+    private LoadBalancer loadBalancer;
+
+    /**
+     * The endpoints of the streams opened by this instance and not released
+     * yet, by connection.
+     */
+    private final Map<HttpURLConnection, Endpoint> streams = new ConcurrentHashMap<>();
+
+    /**
+     * The time budgets of the requests, or {@code null} to apply the timeout to
+     * connecting and reading.
+     */
+    private Timeouts timeouts;
+
+    /**
+     * The deadline every request must meet, or {@code null}.
+     */
+    private Deadline deadline;
+
+    /**
+     * The retry policy of the requests, or {@code null} to never retry.
+     */
+    private RetryPolicy retryPolicy;
+
+    /**
+     * The journal the write requests can be queued in, or {@code null}.
+     */
+    private RequestJournal journal;
+
     /**
      * Constructs a new instance of {@code HttpRequester} with the specified base
      * URL.
@@ -85,6 +158,49 @@ public class NetConex implements Methods {
         this.timeout = timeout;
     }
 
+    /**
+     * Constructs a new instance of {@code NetConex} sharing the whole
+     * configuration of the specified one, used by the request handlers.
+     * 
+     * @param requester The instance to copy the configuration from.
+     */
+    protected NetConex(NetConex requester) {
+        this.baseUrl = requester.baseUrl;
+        this.objectMapper = requester.objectMapper;
+        this.headers.putAll(requester.headers);
+        this.timeout = requester.timeout;
+        this.timeouts = requester.timeouts;
+        this.deadline = requester.deadline;
+        this.retryPolicy = requester.retryPolicy;
+        this.journal = requester.journal;
+        this.hedgingPolicy = requester.hedgingPolicy;
+        this.loadBalancer = requester.loadBalancer;
+    }
+
+    /**
+     * Constructs a new instance of {@code NetConex} spreading its requests over
+     * the specified base URLs.
+     * 
+     * @param baseUrls The base URLs serving the same API.
+     * @param policy   The policy used to pick the base URL of each request.
+     * @see LoadBalancer
+     */
+    public NetConex(List<String> baseUrls, LoadBalancingPolicy policy) {
+        this(new LoadBalancer(baseUrls, policy));
+    }
+
+    /**
+     * Constructs a new instance of {@code NetConex} spreading its requests over
+     * the endpoints of the specified load balancer.
+     * 
+     * @param loadBalancer The load balancer picking the base URL of each
+     *                     request.
+     */
+    public NetConex(LoadBalancer loadBalancer) {
+        this(loadBalancer.getEndpoints().get(0).getBaseUrl());
+        this.loadBalancer = loadBalancer;
+    }
+
     /**
      * Returns the base URL for HTTP requests.
      * 
@@ -140,10 +256,234 @@ public class NetConex implements Methods {
         return timeout;
     }
 
+    /**
+     * Sets the time budgets of the requests, replacing the timeout.
+     * 
+     * @param timeouts The time budgets, or {@code null} to use the timeout
+     *                 again.
+     * @see Timeouts
+     */
+    public void setTimeouts(Timeouts timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Retrieves the time budgets of the requests.
+     * 
+     * @return The time budgets, or {@code null} if the timeout is used.
+     */
+    public Timeouts getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Sets the deadline every request must meet, on top of the total budget of
+     * the {@link Timeouts}. This is meant to propagate the deadline of the work
+     * the requests are made for, typically on a handler returned by
+     * {@link #get()}, {@link #post()}, {@link #put()} or {@link #delete()}.
+     * 
+     * @param deadline The deadline, or {@code null} for none.
+     */
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Retrieves the deadline every request must meet.
+     * 
+     * @return The deadline, or {@code null} if there is none.
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the retry policy of the requests.
+     * 
+     * @param retryPolicy The retry policy, or {@code null} to never retry.
+     * @see RetryPolicy
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Retrieves the retry policy of the requests.
+     * 
+     * @return The retry policy, or {@code null} if requests are never retried.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the journal the write requests can be queued in, with
+     * {@link Post#enqueue(String, Object)} and
+     * {@link Put#enqueue(String, Object)}.
+     * 
+     * @param journal The journal, or {@code null}.
+     * @see RequestJournal
+     */
+    public void setJournal(RequestJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Retrieves the journal the write requests can be queued in.
+     * 
+     * @return The journal, or {@code null} if there is none.
+     */
+    public RequestJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the hedging policy applied to idempotent requests.
+     * 
+     * @param hedgingPolicy The hedging policy, or {@code null} to disable
+     *                      hedging.
+     * @see HedgingPolicy
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * Retrieves the hedging policy applied to idempotent requests.
+     * 
+     * @return The hedging policy, or {@code null} if hedging is disabled.
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Sets the load balancer spreading requests over several base URLs.
+     * 
+     * @param loadBalancer The load balancer, or {@code null} to only use the
+     *                     base URL.
+     */
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * Retrieves the load balancer spreading requests over several base URLs.
+     * 
+     * @return The load balancer, or {@code null} if there is none.
+     */
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * Opens connections to every host this instance sends requests to before
+     * traffic arrives, so the first requests don't pay for the DNS lookups, TCP
+     * connects and TLS handshakes.
+     * 
+     * <p>
+     * The hosts are the base URL, or the endpoints of the load balancer, and
+     * the alternate base URLs of the hedging policy. For each of them,
+     * {@code connectionsPerHost} connections are opened at the same time, a
+     * HEAD request is sent on each, and they are left idle in the keep-alive
+     * pool of the JDK. That pool keeps at most {@code http.maxConnections}
+     * connections per host, 5 by default. A host that does not answer within 10
+     * seconds, or the timeouts of this instance if shorter, is skipped.
+     * 
+     * @param connectionsPerHost The number of connections to open per host.
+     * @return The number of connections opened.
+     */
+    public int warmUp(int connectionsPerHost) {
+        Set<String> baseUrls = new LinkedHashSet<>();
+        if (loadBalancer != null) {
+            for (Endpoint endpoint : loadBalancer.getEndpoints()) {
+                baseUrls.add(endpoint.getBaseUrl());
+            }
+        } else {
+            baseUrls.add(baseUrl);
+        }
+        if (hedgingPolicy != null) {
+            baseUrls.addAll(hedgingPolicy.getAlternateBaseUrls());
+        }
+
+        AtomicInteger opened = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String target : baseUrls) {
+                executor.execute(() -> warmUp(target, connectionsPerHost, opened));
+            }
+        }
+        return opened.get();
+    }
+
+    /**
+     * Opens connections to the host of a base URL. Every connection is
+     * established before any request is sent, so they can't end up reusing
+     * each other.
+     * 
+     * @param target The base URL.
+     * @param count  The number of connections to open.
+     * @param opened The counter of connections opened.
+     */
+    private void warmUp(String target, int count, AtomicInteger opened) {
+        try {
+            DnsCache.prefetch(new URI(target).getHost());
+        } catch (Exception e) {
+            return;
+        }
+        CountDownLatch connected = new CountDownLatch(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                executor.execute(() -> {
+                    HttpURLConnection connection = null;
+                    try {
+                        connection = createConnection(target, "", "HEAD");
+                        int connectTimeout = timeouts == null ? timeout : timeouts.getConnectTimeout();
+                        int readTimeout = timeouts == null ? timeout : timeouts.getFirstByteTimeout();
+                        connection.setConnectTimeout(warmUpTimeout(connectTimeout));
+                        connection.setReadTimeout(warmUpTimeout(readTimeout));
+                        connection.connect();
+                    } catch (Exception e) {
+                        connection = null;
+                    } finally {
+                        connected.countDown();
+                    }
+                    if (connection == null) {
+                        return;
+                    }
+                    try {
+                        connected.await();
+                        int responseCode = connection.getResponseCode();
+                        InputStream body = responseCode < HttpURLConnection.HTTP_BAD_REQUEST
+                                ? connection.getInputStream()
+                                : connection.getErrorStream();
+                        if (body != null) {
+                            body.close();
+                        }
+                        opened.incrementAndGet();
+                    } catch (Exception e) {
+                        connection.disconnect();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Bounds a timeout for a warm-up connection, so that a host dropping the
+     * packets can't hold the warm-up forever.
+     * 
+     * @param configured The timeout of the requests in milliseconds, {@code 0}
+     *                   for none.
+     * @return The timeout to use in milliseconds.
+     */
+    private static int warmUpTimeout(int configured) {
+        return configured <= 0 ? WARM_UP_TIMEOUT : Math.min(configured, WARM_UP_TIMEOUT);
+    }
+
     /**
      * Creates and configures a new {@code HttpURLConnection} for the specified
      * endpoint and
-     * HTTP method.
+     * HTTP method. When a load balancer is set, it picks the base URL.
      * 
      * @param endpoint The endpoint relative to the base URL.
      * @param method   The HTTP method (e.g., GET, POST, PUT, DELETE).
@@ -154,6 +494,24 @@ public class NetConex implements Methods {
      */
     protected HttpURLConnection createConnection(String endpoint, String method)
             throws IOException, URISyntaxException {
+        LoadBalancer balancer = loadBalancer;
+        return createConnection(balancer == null ? baseUrl : balancer.select().getBaseUrl(), endpoint, method);
+    }
+
+    /**
+     * Creates and configures a new {@code HttpURLConnection} for the specified
+     * endpoint of another base URL and HTTP method.
+     * 
+     * @param baseUrl  The base URL to use instead of the one of this instance.
+     * @param endpoint The endpoint relative to the base URL.
+     * @param method   The HTTP method (e.g., GET, POST, PUT, DELETE).
+     * @return {@code HttpURLConnection} configured for the specified endpoint and
+     *         method.
+     * @throws IOException        If an I/O exception occurs.
+     * @throws URISyntaxException If the URL is malformed.
+     */
+    protected HttpURLConnection createConnection(String baseUrl, String endpoint, String method)
+            throws IOException, URISyntaxException {
         URI uri = new URI(baseUrl + endpoint);
         URL url = uri.toURL();
 
@@ -167,6 +525,344 @@ public class NetConex implements Methods {
         return connection;
     }
 
+    /**
+     * Sends a request and reads its response, retrying as configured by the
+     * retry policy. The whole call, retries and redirects included, must meet
+     * the deadline set on this instance and the total budget of the
+     * {@link Timeouts}; once it expires the attempt in flight is cancelled, its
+     * connection dropped, and a {@link DeadlineExceededException} thrown.
+     * 
+     * <p>
+     * When a load balancer is set, it picks the endpoint of every attempt and is
+     * told how it went: connection errors, expired deadlines and 5xx responses
+     * count as failures of the endpoint. An attempt the client cancelled, with a
+     * {@link CancellationException} or by interrupting its thread, is not
+     * counted either way.
+     * 
+     * @param <T>      The type of the result of the exchange.
+     * @param endpoint The endpoint relative to the base URL.
+     * @param method   The HTTP method (e.g., GET, POST, PUT, DELETE).
+     * @param handler  The handler sending the request and reading the response.
+     * @return The result of the exchange.
+     * @throws Exception If the exchange fails.
+     */
+    protected <T> T exchange(String endpoint, String method, ExchangeHandler<T> handler) throws Exception {
+        return exchange(endpoint, method, ExchangeKind.REQUEST, handler);
+    }
+
+    /**
+     * Sends a request and reads its response like
+     * {@link #exchange(String, String, ExchangeHandler)}, telling the load
+     * balancer what kind of exchange it is.
+     * 
+     * @param <T>      The type of the result of the exchange.
+     * @param endpoint The endpoint relative to the base URL.
+     * @param method   The HTTP method (e.g., GET, POST, PUT, DELETE).
+     * @param kind     The kind of exchange.
+     * @param handler  The handler sending the request and reading the response.
+     * @return The result of the exchange.
+     * @throws Exception If the exchange fails.
+     */
+    protected <T> T exchange(String endpoint, String method, ExchangeKind kind, ExchangeHandler<T> handler)
+            throws Exception {
+        return exchange(null, endpoint, method, kind, handler, callDeadline());
+    }
+
+    /**
+     * Returns the deadline of a call starting now: the deadline set on this
+     * instance, shortened to the total budget of the {@link Timeouts}.
+     * 
+     * @return The deadline, or {@code null} if the call has none.
+     */
+    private Deadline callDeadline() {
+        Deadline callDeadline = deadline;
+        if (timeouts != null && timeouts.getTotalTimeout() > 0) {
+            callDeadline = Deadline.after(timeouts.getTotalTimeout()).min(callDeadline);
+        }
+        return callDeadline;
+    }
+
+    /**
+     * Sends a request and reads its response, retrying as configured by the
+     * retry policy, within the given deadline.
+     * 
+     * @param <T>          The type of the result of the exchange.
+     * @param alternate    The base URL to send the request to, bypassing the
+     *                     load balancer, or {@code null} for the usual one.
+     * @param endpoint     The endpoint relative to the base URL.
+     * @param method       The HTTP method.
+     * @param kind         The kind of exchange.
+     * @param handler      The handler sending the request and reading the
+     *                     response.
+     * @param callDeadline The deadline of the whole call, or {@code null}.
+     * @return The result of the exchange.
+     * @throws Exception If the exchange fails.
+     */
+    private <T> T exchange(String alternate, String endpoint, String method, ExchangeKind kind,
+            ExchangeHandler<T> handler, Deadline callDeadline) throws Exception {
+        RetryPolicy retry = retryPolicy;
+        for (int attempt = 1;; attempt++) {
+            try {
+                return attempt(alternate, endpoint, method, kind, handler, callDeadline);
+            } catch (Exception e) {
+                if (retry == null || !retry.shouldRetry(method, attempt, e)) {
+                    throw e;
+                }
+                long backoff = retry.backoff(attempt + 1);
+                if (callDeadline != null && callDeadline.remainingMillis() <= backoff) {
+                    throw e;
+                }
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Makes a single attempt at an exchange.
+     * 
+     * @param <T>          The type of the result of the exchange.
+     * @param alternate    The base URL to send the request to, bypassing the
+     *                     load balancer, or {@code null} for the usual one.
+     * @param endpoint     The endpoint relative to the base URL.
+     * @param method       The HTTP method.
+     * @param kind         The kind of exchange.
+     * @param handler      The handler sending the request and reading the
+     *                     response.
+     * @param callDeadline The deadline of the whole call, or {@code null}.
+     * @return The result of the exchange.
+     * @throws Exception If the attempt fails.
+     */
+    private <T> T attempt(String alternate, String endpoint, String method, ExchangeKind kind,
+            ExchangeHandler<T> handler, Deadline callDeadline) throws Exception {
+        if (callDeadline != null && callDeadline.isExpired()) {
+            throw new DeadlineExceededException(method + " request deadline expired before it was sent");
+        }
+
+        LoadBalancer balancer = alternate == null ? loadBalancer : null;
+        Endpoint target = balancer == null ? null : balancer.select();
+        String base = alternate != null ? alternate : target == null ? baseUrl : target.getBaseUrl();
+        HttpURLConnection connection = createConnection(base, endpoint, method);
+        applyTimeouts(connection, callDeadline);
+        ScheduledFuture<?> watchdog = callDeadline == null ? null : callDeadline.schedule(connection::disconnect);
+
+        if (target != null) {
+            target.begin();
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        boolean cancelled = false;
+        try {
+            T value = handler.exchange(connection);
+            success = true;
+            return value;
+        } catch (ApiRequestException e) {
+            // Only thrown once a response was received, the code is cached.
+            success = connection.getResponseCode() < HttpURLConnection.HTTP_INTERNAL_ERROR;
+            throw e;
+        } catch (Exception e) {
+            cancelled = e instanceof CancellationException || Thread.currentThread().isInterrupted();
+            if (callDeadline != null && callDeadline.isExpired()) {
+                throw new DeadlineExceededException(method + " request exceeded its deadline", e);
+            }
+            throw e;
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (target != null && cancelled) {
+                target.release();
+            } else if (target != null) {
+                long latency = kind == ExchangeKind.REQUEST ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                        : -1;
+                if (kind == ExchangeKind.STREAM && success) {
+                    // The stream stays in flight until its connection is released.
+                    target.begin();
+                    streams.put(connection, target);
+                }
+                balancer.record(target, latency, success);
+            }
+        }
+    }
+
+    /**
+     * Releases the connection of a stream opened with an
+     * {@link ExchangeKind#STREAM} exchange, so that its endpoint no longer
+     * counts it in flight. Releasing a connection twice, or one that was not
+     * held, does nothing.
+     * 
+     * @param connection The connection of the stream.
+     */
+    protected void release(HttpURLConnection connection) {
+        Endpoint target = streams.remove(connection);
+        if (target != null) {
+            target.release();
+        }
+    }
+
+    /**
+     * Applies the connect and first-byte budgets to a connection, shortened to
+     * what is left before the deadline. The first-byte budget becomes the read
+     * timeout, so it also limits every wait between two reads of the body.
+     * 
+     * @param connection   The connection, not connected yet.
+     * @param callDeadline The deadline of the whole call, or {@code null}.
+     */
+    private void applyTimeouts(HttpURLConnection connection, Deadline callDeadline) {
+        int connectTimeout = timeouts == null ? timeout : timeouts.getConnectTimeout();
+        int readTimeout = timeouts == null ? timeout : timeouts.getFirstByteTimeout();
+        if (callDeadline != null) {
+            int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, callDeadline.remainingMillis()));
+            connectTimeout = connectTimeout == 0 ? remaining : Math.min(connectTimeout, remaining);
+            readTimeout = readTimeout == 0 ? remaining : Math.min(readTimeout, remaining);
+        }
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+    }
+
+    /**
+     * Reads the status of the response received on a connection and wraps it in
+     * an {@link ApiResponse}, leaving the headers and the body on the
+     * connection.
+     * 
+     * @param connection The connection the request was sent on.
+     * @param method     The HTTP method of the request.
+     * @return The response, whose status code is below 400.
+     * @throws HttpStatusCodeException If the response is an error response.
+     * @throws IOException             If the response cannot be read.
+     */
+    protected ApiResponse toResponse(HttpURLConnection connection, String method)
+            throws HttpStatusCodeException, IOException {
+        int responseCode = connection.getResponseCode();
+        if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            throw HttpStatusCodeException.fromConnection(connection,
+                    method + " request failed with response code: " + responseCode);
+        }
+        return new ApiResponse(connection, responseCode, objectMapper);
+    }
+
+    /**
+     * Executes an idempotent request, hedged according to the hedging policy if
+     * one is set.
+     * 
+     * <p>
+     * If no attempt has succeeded once the delay of the policy has elapsed, and
+     * the budget allows it, another attempt is started on the next alternate
+     * base URL, or on the endpoint picked by the load balancer if there are no
+     * alternates. The first attempt to succeed wins and the connections of the
+     * others, still in flight, are dropped. The request fails once every attempt started has
+     * failed.
+     * 
+     * @param <T>      The type of the result of the exchange.
+     * @param endpoint The endpoint for the HTTP request.
+     * @param method   The HTTP method, which must be idempotent.
+     * @param handler  The handler sending the request and reading the response.
+     * @return The result of the first successful attempt.
+     * @throws ApiRequestException If every attempt failed.
+     */
+    protected <T> T executeHedged(String endpoint, String method, ExchangeHandler<T> handler)
+            throws ApiRequestException {
+        HedgingPolicy policy = hedgingPolicy;
+        if (policy == null) {
+            try {
+                return exchange(endpoint, method, handler);
+            } catch (ApiRequestException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ApiRequestException("Error executing " + method + " request", e);
+            }
+        }
+
+        policy.recordRequest();
+        // Every attempt shares the deadline of the call.
+        Deadline callDeadline = callDeadline();
+        List<String> alternates = policy.getAlternateBaseUrls();
+        List<HttpURLConnection> connections = new ArrayList<>();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger();
+        // Latencies are measured from the start of the call, as seen by the
+        // caller: a hedge that wins is not faster than the delay it waited for.
+        long start = System.nanoTime();
+        try {
+            for (int attempt = 0; attempt <= policy.getMaxHedges(); attempt++) {
+                if (attempt > 0) {
+                    try {
+                        return result.get(policy.currentDelay(), TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        if (!policy.tryAcquireHedge()) {
+                            break;
+                        }
+                    }
+                }
+                String alternate = attempt == 0 || alternates.isEmpty() ? null
+                        : alternates.get((attempt - 1) % alternates.size());
+                boolean hedge = attempt > 0;
+                running.incrementAndGet();
+                Thread.ofVirtual().name("netconex-hedge").start(() -> {
+                    HttpURLConnection[] registered = new HttpURLConnection[1];
+                    ExchangeHandler<T> cancellable = connection -> {
+                        synchronized (connections) {
+                            if (result.isDone()) {
+                                // Not an I/O error, so that the retry policy gives up on it.
+                                throw new CancellationException("Hedged " + method + " request already answered");
+                            }
+                            connections.add(connection);
+                        }
+                        registered[0] = connection;
+                        try {
+                            return handler.exchange(connection);
+                        } catch (Exception e) {
+                            if (!result.isDone()) {
+                                throw e;
+                            }
+                            // Dropped because another attempt won, which says nothing about the endpoint.
+                            CancellationException cancelled = new CancellationException(
+                                    "Hedged " + method + " request already answered");
+                            cancelled.initCause(e);
+                            throw cancelled;
+                        }
+                    };
+                    try {
+                        T value = exchange(alternate, endpoint, method, ExchangeKind.REQUEST, cancellable, callDeadline);
+                        boolean won;
+                        synchronized (connections) {
+                            connections.remove(registered[0]);
+                            won = result.complete(value);
+                        }
+                        if (won) {
+                            policy.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                            if (hedge) {
+                                policy.getMetrics().recordHedgeWon();
+                            }
+                        } else if (value instanceof AutoCloseable late) {
+                            // Such as an unread ApiResponse, holding its connection.
+                            late.close();
+                        }
+                    } catch (Exception e) {
+                        if (running.decrementAndGet() == 0) {
+                            result.completeExceptionally(e);
+                        }
+                    }
+                });
+            }
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiRequestException cause) {
+                throw cause;
+            }
+            throw new ApiRequestException("Error executing " + method + " request", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiRequestException("Interrupted while executing " + method + " request", e);
+        } finally {
+            result.cancel(false);
+            synchronized (connections) {
+                for (HttpURLConnection connection : connections) {
+                    connection.disconnect();
+                }
+            }
+        }
+    }
+
     /**
      * Determines the HTTP method based on the name of the class calling this
      * method.
@@ -213,39 +909,47 @@ public class NetConex implements Methods {
      * @param method      The HTTP method (e.g., GET, POST, PUT, DELETE).
      * @param requestBody The request body object (can be null for requests without
      *                    a body).
-     * @return A CompletableFuture containing the response from the HTTP request.
+     * @return A CompletableFuture containing the response from the HTTP request,
+     *         completed exceptionally with an {@link ApiRequestException}, such as
+     *         a {@link HttpStatusCodeException} for an error response, if the
+     *         request fails.
      */
     protected CompletableFuture<String> executeAsync(String endpoint, String method, Object requestBody) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                HttpURLConnection connection = createConnection(endpoint, method);
-                connection.setDoOutput(true);
-                connection.setRequestProperty("Content-Type", "application/json");
-
-                if (requestBody != null) {
-                    String jsonInputString = objectMapper.writeValueAsString(requestBody);
-                    try (OutputStream os = connection.getOutputStream()) {
-                        byte[] input = jsonInputString.getBytes("utf-8");
-                        os.write(input, 0, input.length);
+                return exchange(endpoint, method, connection -> {
+                    connection.setDoOutput(true);
+                    connection.setRequestProperty("Content-Type", "application/json");
+
+                    if (requestBody != null) {
+                        String jsonInputString = objectMapper.writeValueAsString(requestBody);
+                        try (OutputStream os = connection.getOutputStream()) {
+                            byte[] input = jsonInputString.getBytes("utf-8");
+                            os.write(input, 0, input.length);
+                        }
                     }
-                }
 
-                int responseCode = connection.getResponseCode();
+                    int responseCode = connection.getResponseCode();
 
-                if (responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_CREATED) {
-                    try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                        StringBuilder response = new StringBuilder();
-                        String inputLine;
-                        while ((inputLine = in.readLine()) != null) {
-                            response.append(inputLine);
+                    if (responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_CREATED) {
+                        try (BufferedReader in = new BufferedReader(
+                                new InputStreamReader(connection.getInputStream()))) {
+                            StringBuilder response = new StringBuilder();
+                            String inputLine;
+                            while ((inputLine = in.readLine()) != null) {
+                                response.append(inputLine);
+                            }
+                            return response.toString();
                         }
-                        return response.toString();
+                    } else {
+                        throw HttpStatusCodeException.fromConnection(connection,
+                                method + " request failed with response code: " + responseCode);
                     }
-                } else {
-                    throw new RuntimeException(method + " request failed with response code: " + responseCode);
-                }
+                });
+            } catch (ApiRequestException e) {
+                throw new CompletionException(e);
             } catch (Exception e) {
-                throw new RuntimeException("Error executing " + method + " request", e);
+                throw new CompletionException(new ApiRequestException("Error executing " + method + " request", e));
             }
         });
     }
@@ -253,6 +957,10 @@ public class NetConex implements Methods {
     /**
      * Formats the given JSON response string for better readability.
      * 
+     * <p>
+     * The response is pretty-printed token by token, without being parsed into
+     * an object tree first.
+     * 
      * @param jsonResponse The JSON response string to be formatted.
      * @return The formatted JSON string.
      * @throws JsonParsingException    If there is an error parsing the JSON.
@@ -260,12 +968,142 @@ public class NetConex implements Methods {
      */
     @Override
     public String formatResponse(String jsonResponse) throws JsonParsingException, JsonFormattingException {
+        JsonFactory factory = objectMapper.getFactory();
+        StringWriter writer = new StringWriter(jsonResponse.length() + (jsonResponse.length() >> 1));
+        try (JsonParser parser = factory.createParser(jsonResponse);
+                JsonGenerator generator = factory.createGenerator(writer)) {
+            new JsonFormatter(factory).format(parser, generator);
+        } catch (JsonParseException e) {
+            throw new JsonParsingException("Error parsing JSON response", e);
+        } catch (Exception e) {
+            throw new JsonFormattingException("Error formatting JSON response", e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Formats the given UTF-8 encoded JSON response for better readability.
+     * 
+     * @param jsonResponse The JSON response bytes to be formatted.
+     * @return The formatted JSON string.
+     * @throws JsonParsingException    If there is an error parsing the JSON.
+     * @throws JsonFormattingException If there is an error formatting the JSON.
+     */
+    public String formatResponse(byte[] jsonResponse) throws JsonParsingException, JsonFormattingException {
+        return formatResponse(new ByteArrayInputStream(jsonResponse));
+    }
+
+    /**
+     * Formats the JSON response read from the given stream for better
+     * readability. The stream is not closed.
+     * 
+     * @param jsonResponse The stream to read the JSON response from.
+     * @return The formatted JSON string.
+     * @throws JsonParsingException    If there is an error parsing the JSON.
+     * @throws JsonFormattingException If there is an error formatting the JSON.
+     */
+    public String formatResponse(InputStream jsonResponse) throws JsonParsingException, JsonFormattingException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        formatResponse(jsonResponse, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formats the JSON response read from the given stream and writes it to the
+     * output stream as UTF-8. Neither stream is closed.
+     * 
+     * <p>
+     * Memory use stays constant whatever the size of the response, which makes
+     * this the method of choice to log very large payloads.
+     * 
+     * @param jsonResponse The stream to read the JSON response from.
+     * @param out          The stream to write the formatted JSON to.
+     * @throws JsonParsingException    If there is an error parsing the JSON.
+     * @throws JsonFormattingException If there is an error formatting the JSON.
+     */
+    public void formatResponse(InputStream jsonResponse, OutputStream out)
+            throws JsonParsingException, JsonFormattingException {
+        JsonFactory factory = objectMapper.getFactory();
+        try (JsonParser parser = factory.createParser(jsonResponse);
+                JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            new JsonFormatter(factory).format(parser, generator);
+        } catch (JsonParseException e) {
+            throw new JsonParsingException("Error parsing JSON response", e);
+        } catch (Exception e) {
+            throw new JsonFormattingException("Error formatting JSON response", e);
+        }
+    }
+
+    /**
+     * Formats the given JSON response string for logging, stopping once the
+     * output reaches {@code maxBytes} bytes or {@code maxElements} values. Open
+     * arrays and objects are closed and a truncation marker is appended.
+     * 
+     * @param jsonResponse The JSON response string to be formatted.
+     * @param maxBytes     The approximate maximum size of the output in bytes.
+     * @param maxElements  The maximum number of values (scalars, arrays and
+     *                     objects) to output.
+     * @return The formatted, possibly truncated, JSON string.
+     * @throws JsonParsingException    If there is an error parsing the JSON.
+     * @throws JsonFormattingException If there is an error formatting the JSON.
+     */
+    public String formatResponse(String jsonResponse, int maxBytes, int maxElements)
+            throws JsonParsingException, JsonFormattingException {
         try {
-            Object jsonObject = objectMapper.readValue(jsonResponse, Object.class);
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonObject);
+            return formatTruncated(objectMapper.getFactory().createParser(jsonResponse), maxBytes, maxElements);
+        } catch (IOException e) {
+            throw new JsonFormattingException("Error formatting JSON response", e);
+        }
+    }
+
+    /**
+     * Formats the JSON response read from the given stream for logging, stopping
+     * once the output reaches {@code maxBytes} bytes or {@code maxElements}
+     * values. Only the part of the stream needed to produce the output is read,
+     * and the stream is not closed.
+     * 
+     * @param jsonResponse The stream to read the JSON response from.
+     * @param maxBytes     The approximate maximum size of the output in bytes.
+     * @param maxElements  The maximum number of values (scalars, arrays and
+     *                     objects) to output.
+     * @return The formatted, possibly truncated, JSON string.
+     * @throws JsonParsingException    If there is an error parsing the JSON.
+     * @throws JsonFormattingException If there is an error formatting the JSON.
+     */
+    public String formatResponse(InputStream jsonResponse, int maxBytes, int maxElements)
+            throws JsonParsingException, JsonFormattingException {
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser(jsonResponse);
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return formatTruncated(parser, maxBytes, maxElements);
+        } catch (IOException e) {
+            throw new JsonFormattingException("Error formatting JSON response", e);
+        }
+    }
+
+    /**
+     * Formats the events of the given parser, stopping at the given limits.
+     * 
+     * @param parser      The parser to read from, closed once done.
+     * @param maxBytes    The approximate maximum size of the output in bytes.
+     * @param maxElements The maximum number of values to output.
+     * @return The formatted, possibly truncated, JSON string.
+     * @throws JsonParsingException    If there is an error parsing the JSON.
+     * @throws JsonFormattingException If there is an error formatting the JSON.
+     */
+    private String formatTruncated(JsonParser parser, int maxBytes, int maxElements)
+            throws JsonParsingException, JsonFormattingException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(Math.max(maxBytes, 0), 8192) + 32);
+        try (parser) {
+            new JsonFormatter(objectMapper.getFactory()).formatTruncated(parser, out, maxBytes, maxElements);
+        } catch (JsonParseException e) {
+            throw new JsonParsingException("Error parsing JSON response", e);
         } catch (Exception e) {
             throw new JsonFormattingException("Error formatting JSON response", e);
         }
+        return out.toString(StandardCharsets.UTF_8);
     }
 
     /**
@@ -340,4 +1178,48 @@ public class NetConex implements Methods {
     public Delete delete() {
         return new Delete(this);
     }
+
+    /**
+     * The kinds of exchanges, which the load balancer accounts for
+     * differently.
+     */
+    protected enum ExchangeKind {
+        /**
+         * A request and its response, whose duration is a sample of the latency
+         * of the endpoint.
+         */
+        REQUEST,
+
+        /**
+         * A transfer of a body of any size, such as a file download or upload.
+         * Its outcome counts, but its duration depends on the size of the body
+         * and says nothing about the latency of the endpoint.
+         */
+        TRANSFER,
+
+        /**
+         * The opening of a long-lived stream, whose handler returns the
+         * connection once the response status arrived. Its outcome counts, and
+         * the stream stays in flight on its endpoint until the connection is
+         * passed to {@link NetConex#release(HttpURLConnection)}.
+         */
+        STREAM
+    }
+
+    /**
+     * Sends a request on a connection and reads its response.
+     * 
+     * @param <T> The type of the result of the exchange.
+     */
+    @FunctionalInterface
+    protected interface ExchangeHandler<T> {
+        /**
+         * Sends the request and reads the response.
+         * 
+         * @param connection The connection, not connected yet.
+         * @return The result of the exchange.
+         * @throws Exception If the exchange fails.
+         */
+        T exchange(HttpURLConnection connection) throws Exception;
+    }
 }
@@ -0,0 +1,147 @@
+package qc.netconex;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import qc.netconex.error.DeadlineExceededException;
+import qc.netconex.error.HttpStatusCodeException;
+
+/**
+ * The {@code RetryPolicy} class configures how failed requests are retried.
+ *
+ * <p>
+ * Only idempotent methods are retried, after connection errors or a
+ * {@code 429}, {@code 502}, {@code 503} or {@code 504} response. Retries wait
+ * for an exponential backoff with jitter, and are never attempted once the
+ * deadline of the call would expire during the wait.
+ *
+ * @author William Beaudin
+ */
+public class RetryPolicy {
+
+    /**
+     * The methods that can safely be sent twice.
+     */
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    /**
+     * The response codes worth retrying.
+     */
+    private static final Set<Integer> RETRYABLE_CODES = Set.of(429, 502, 503, 504);
+
+    /**
+     * The maximum number of attempts, the first one included.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The wait before the first retry in milliseconds.
+     */
+    private long initialBackoff = 100;
+
+    /**
+     * The longest wait between two attempts in milliseconds.
+     */
+    private long maxBackoff = 5000;
+
+    /**
+     * Constructs a new {@code RetryPolicy}.
+     *
+     * @param maxAttempts The maximum number of attempts, the first one
+     *                    included.
+     */
+    public RetryPolicy(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Returns the maximum number of attempts, the first one included.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns the wait before the first retry.
+     *
+     * @return The wait in milliseconds.
+     */
+    public long getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * Sets the wait before the first retry. It doubles with every retry.
+     *
+     * @param initialBackoff The wait in milliseconds.
+     */
+    public void setInitialBackoff(long initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    /**
+     * Returns the longest wait between two attempts.
+     *
+     * @return The wait in milliseconds.
+     */
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Sets the longest wait between two attempts.
+     *
+     * @param maxBackoff The wait in milliseconds.
+     */
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Returns how long to wait before the given attempt, between half and all
+     * of the exponential backoff.
+     *
+     * @param attempt The number of the next attempt, {@code 2} for the first
+     *                retry.
+     * @return The wait in milliseconds.
+     */
+    public long backoff(int attempt) {
+        long backoff = initialBackoff << Math.min(attempt - 2, 30);
+        backoff = Math.min(maxBackoff, backoff < 0 ? maxBackoff : backoff);
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    /**
+     * Returns whether a failed attempt should be retried.
+     *
+     * @param method  The HTTP method of the request.
+     * @param attempt The number of the failed attempt, {@code 1} for the first.
+     * @param error   The error of the attempt.
+     * @return {@code true} if another attempt should be made.
+     */
+    boolean shouldRetry(String method, int attempt, Exception error) {
+        return attempt < maxAttempts && IDEMPOTENT_METHODS.contains(method) && isRetryable(error);
+    }
+
+    /**
+     * Returns whether an error is worth retrying, whatever the method.
+     *
+     * @param error The error of the attempt.
+     * @return {@code true} for connection errors and retryable response codes.
+     */
+    public static boolean isRetryable(Exception error) {
+        if (error instanceof DeadlineExceededException) {
+            return false;
+        }
+        if (error instanceof HttpStatusCodeException statusError) {
+            return RETRYABLE_CODES.contains(statusError.getStatusCode());
+        }
+        return error instanceof IOException;
+    }
+}
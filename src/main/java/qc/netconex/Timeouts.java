@@ -0,0 +1,85 @@
+package qc.netconex;
+
+/**
+ * The {@code Timeouts} class holds the time budgets of a request, each in
+ * milliseconds, {@code 0} meaning no limit.
+ *
+ * <p>
+ * The connect and first-byte budgets apply to every attempt, the total budget
+ * covers the whole call, retries, redirects and reading the response included.
+ * When the total budget runs out, the exchange in flight is cancelled and its
+ * connection dropped.
+ *
+ * <p>
+ * The first-byte budget is the read timeout of the connection. Despite its
+ * name, it is an idle timeout: it limits the wait for the response to start
+ * arriving, then every wait between two reads of the body, but not the time
+ * taken by the whole body. A slow response that keeps trickling in only fails
+ * on the total budget.
+ *
+ * @author William Beaudin
+ */
+public final class Timeouts {
+
+    /**
+     * The time allowed to establish a connection.
+     */
+    private final int connectTimeout;
+
+    /**
+     * The time allowed for the response to start arriving, and between two
+     * reads afterwards.
+     */
+    private final int firstByteTimeout;
+
+    /**
+     * The time allowed for the whole call.
+     */
+    private final long totalTimeout;
+
+    /**
+     * Constructs a new {@code Timeouts}.
+     *
+     * @param connectTimeout   The time allowed to establish a connection.
+     * @param firstByteTimeout The time allowed for the response to start
+     *                         arriving, and between two reads afterwards.
+     * @param totalTimeout     The time allowed for the whole call.
+     */
+    public Timeouts(int connectTimeout, int firstByteTimeout, long totalTimeout) {
+        if (connectTimeout < 0 || firstByteTimeout < 0 || totalTimeout < 0) {
+            throw new IllegalArgumentException("Timeouts cannot be negative");
+        }
+        this.connectTimeout = connectTimeout;
+        this.firstByteTimeout = firstByteTimeout;
+        this.totalTimeout = totalTimeout;
+    }
+
+    /**
+     * Returns the time allowed to establish a connection.
+     *
+     * @return The timeout in milliseconds, {@code 0} for no limit.
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Returns the time allowed for the response to start arriving, and between
+     * two reads afterwards. This is the read timeout of the connection, an idle
+     * timeout, not a limit on the time taken by the whole response.
+     *
+     * @return The timeout in milliseconds, {@code 0} for no limit.
+     */
+    public int getFirstByteTimeout() {
+        return firstByteTimeout;
+    }
+
+    /**
+     * Returns the time allowed for the whole call.
+     *
+     * @return The timeout in milliseconds, {@code 0} for no limit.
+     */
+    public long getTotalTimeout() {
+        return totalTimeout;
+    }
+}
@@ -0,0 +1,29 @@
+package qc.netconex.error;
+
+/**
+ * Exception class for requests cancelled because their deadline expired.
+ */
+public class DeadlineExceededException extends ApiRequestException {
+    /**
+     * Constructs a DeadlineExceededException with the specified detail message.
+     * 
+     * @param message The detail message (which is saved for later retrieval by the
+     *                getMessage() method).
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a DeadlineExceededException with the specified detail message
+     * and cause.
+     * 
+     * @param message The detail message (which is saved for later retrieval by the
+     *                getMessage() method).
+     * @param cause   The cause (which is saved for later retrieval by the
+     *                getCause() method).
+     */
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
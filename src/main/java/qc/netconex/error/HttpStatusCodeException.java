@@ -1,11 +1,24 @@
 package qc.netconex.error;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+
+import qc.netconex.ApiResponse;
+
 /**
  * Exception class for HTTP status code errors in API requests.
  */
 public class HttpStatusCodeException extends ApiRequestException {
+    /**
+     * The maximum number of bytes of the response body kept as the excerpt.
+     */
+    public static final int MAX_BODY_EXCERPT = 1024;
+
     private int statusCode;
 
+    private String bodyExcerpt;
+
     /**
      * Constructs a HttpStatusCodeException with the specified status code.
      * 
@@ -44,6 +57,48 @@ public class HttpStatusCodeException extends ApiRequestException {
         this.statusCode = statusCode;
     }
 
+    /**
+     * Constructs a HttpStatusCodeException with the specified status code,
+     * message, and excerpt of the response body.
+     * 
+     * @param statusCode  The HTTP status code.
+     * @param message     The detail message (which is saved for later retrieval
+     *                    by the getMessage() method).
+     * @param bodyExcerpt The beginning of the response body, or {@code null}.
+     */
+    public HttpStatusCodeException(int statusCode, String message, String bodyExcerpt) {
+        super(message);
+        this.statusCode = statusCode;
+        this.bodyExcerpt = bodyExcerpt;
+    }
+
+    /**
+     * Creates a HttpStatusCodeException for the response received on the given
+     * connection. At most {@link #MAX_BODY_EXCERPT} bytes of the body are read
+     * as the excerpt, then the body is closed so the connection can be reused
+     * when the rest of it is small enough to be skipped.
+     * 
+     * @param connection The connection the response was received on.
+     * @param message    The detail message.
+     * @return The exception.
+     * @throws IOException If the status code cannot be read.
+     */
+    public static HttpStatusCodeException fromConnection(HttpURLConnection connection, String message)
+            throws IOException {
+        int statusCode = connection.getResponseCode();
+        String excerpt = null;
+        try (InputStream body = statusCode >= HttpURLConnection.HTTP_BAD_REQUEST ? connection.getErrorStream()
+                : connection.getInputStream()) {
+            if (body != null) {
+                byte[] bytes = body.readNBytes(MAX_BODY_EXCERPT);
+                excerpt = new String(bytes, ApiResponse.charsetOf(connection.getContentType()));
+            }
+        } catch (IOException e) {
+            // The excerpt is only informative, the status code is what failed.
+        }
+        return new HttpStatusCodeException(statusCode, message, excerpt);
+    }
+
     /**
      * Gets the HTTP status code associated with this exception.
      * 
@@ -52,4 +107,14 @@ public class HttpStatusCodeException extends ApiRequestException {
     public int getStatusCode() {
         return statusCode;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the beginning of the body of the response, at most
+     * {@link #MAX_BODY_EXCERPT} bytes of it.
+     * 
+     * @return The body excerpt, or {@code null} if there was no body.
+     */
+    public String getBodyExcerpt() {
+        return bodyExcerpt;
+    }
+}
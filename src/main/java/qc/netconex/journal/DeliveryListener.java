@@ -0,0 +1,32 @@
+package qc.netconex.journal;
+
+/**
+ * The {@code DeliveryListener} interface is told what became of the requests of
+ * a {@link RequestJournal}. It is called from the threads delivering the
+ * requests, possibly several at once.
+ *
+ * @author William Beaudin
+ */
+public interface DeliveryListener {
+
+    /**
+     * Called once a request was accepted by the server. After a restart, a
+     * request may be delivered, and reported, more than once.
+     *
+     * @param entry      The request.
+     * @param statusCode The status code of the response.
+     */
+    default void onDelivered(JournalEntry entry, int statusCode) {
+    }
+
+    /**
+     * Called when a request is removed from the journal without having been
+     * delivered, because the server rejected it with a 4xx response other than
+     * 408 or 429, or because the retry policy ran out of attempts.
+     *
+     * @param entry The request.
+     * @param error The error of the last attempt.
+     */
+    default void onDropped(JournalEntry entry, Exception error) {
+    }
+}
@@ -0,0 +1,104 @@
+package qc.netconex.journal;
+
+/**
+ * The {@code JournalEntry} class represents a request stored in a
+ * {@link RequestJournal}, waiting to be delivered.
+ *
+ * @author William Beaudin
+ */
+public final class JournalEntry {
+
+    /**
+     * The position of the request in the journal.
+     */
+    private final long sequence;
+
+    /**
+     * The HTTP method of the request.
+     */
+    private final String method;
+
+    /**
+     * The endpoint of the request, relative to the base URL.
+     */
+    private final String endpoint;
+
+    /**
+     * The key identifying the request to the server across deliveries.
+     */
+    private final String idempotencyKey;
+
+    /**
+     * The JSON body of the request.
+     */
+    private final byte[] body;
+
+    /**
+     * Constructs a new {@code JournalEntry}.
+     *
+     * @param sequence       The position of the request in the journal.
+     * @param method         The HTTP method of the request.
+     * @param endpoint       The endpoint of the request.
+     * @param idempotencyKey The idempotency key of the request.
+     * @param body           The JSON body of the request.
+     */
+    JournalEntry(long sequence, String method, String endpoint, String idempotencyKey, byte[] body) {
+        this.sequence = sequence;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.idempotencyKey = idempotencyKey;
+        this.body = body;
+    }
+
+    /**
+     * Returns the position of the request in the journal. Requests enqueued
+     * later have a greater sequence.
+     *
+     * @return The sequence.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the HTTP method of the request.
+     *
+     * @return The HTTP method.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the endpoint of the request.
+     *
+     * @return The endpoint, relative to the base URL.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns the idempotency key sent with every delivery of the request.
+     *
+     * @return The idempotency key.
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Returns the body of the request. The array is not copied and must not be
+     * modified.
+     *
+     * @return The UTF-8 encoded JSON body.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalEntry[" + sequence + " " + method + " " + endpoint + ", key=" + idempotencyKey + "]";
+    }
+}
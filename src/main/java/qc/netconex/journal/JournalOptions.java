@@ -0,0 +1,139 @@
+package qc.netconex.journal;
+
+import qc.netconex.RetryPolicy;
+
+/**
+ * The {@code JournalOptions} class holds the settings of a
+ * {@link RequestJournal}. They are read once, when the journal is opened.
+ *
+ * @author William Beaudin
+ */
+public class JournalOptions {
+
+    /**
+     * The size of a segment file in bytes.
+     */
+    private int segmentSize = 16 * 1024 * 1024;
+
+    /**
+     * The time in milliseconds spent gathering writes between two syncs.
+     */
+    private long syncDelay = 5;
+
+    /**
+     * The maximum number of requests delivered at once.
+     */
+    private int concurrency = 8;
+
+    /**
+     * The retry policy of the deliveries, or {@code null} for the default one.
+     */
+    private RetryPolicy retryPolicy;
+
+    /**
+     * The listener told about deliveries, or {@code null}.
+     */
+    private DeliveryListener deliveryListener;
+
+    /**
+     * Returns the size of a segment file.
+     *
+     * @return The size in bytes.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets the size of a segment file. A request larger than that gets a
+     * segment of its own.
+     *
+     * @param segmentSize The size in bytes.
+     */
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns the time spent gathering writes between two syncs.
+     *
+     * @return The delay in milliseconds.
+     */
+    public long getSyncDelay() {
+        return syncDelay;
+    }
+
+    /**
+     * Sets the time spent gathering writes between two syncs. The first write
+     * after a quiet period is synced right away; the ones arriving while a sync
+     * or this delay is running are synced together by the next one, trading a
+     * little latency for far fewer syncs under load.
+     *
+     * @param syncDelay The delay in milliseconds, {@code 0} to sync as often as
+     *                  possible.
+     */
+    public void setSyncDelay(long syncDelay) {
+        this.syncDelay = syncDelay;
+    }
+
+    /**
+     * Returns the maximum number of requests delivered at once.
+     *
+     * @return The maximum number of requests.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Sets the maximum number of requests delivered at once. Requests waiting
+     * to be retried count against it, so an unavailable server slows the
+     * delivery down instead of having the whole journal loaded in memory.
+     *
+     * @param concurrency The maximum number of requests.
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Returns the retry policy of the deliveries.
+     *
+     * @return The retry policy, or {@code null} for the default one.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the retry policy of the deliveries. Since every request carries an
+     * idempotency key, the policy applies to every method. Only its number of
+     * attempts and its backoff are used: every failure is retried, timeouts and
+     * 5xx responses included, except a 4xx response other than 408 or 429. By
+     * default, deliveries are retried until they succeed, waiting up to 30
+     * seconds between two attempts.
+     *
+     * @param retryPolicy The retry policy, or {@code null} for the default one.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the listener told about deliveries.
+     *
+     * @return The listener, or {@code null}.
+     */
+    public DeliveryListener getDeliveryListener() {
+        return deliveryListener;
+    }
+
+    /**
+     * Sets the listener told about deliveries.
+     *
+     * @param deliveryListener The listener, or {@code null}.
+     */
+    public void setDeliveryListener(DeliveryListener deliveryListener) {
+        this.deliveryListener = deliveryListener;
+    }
+}
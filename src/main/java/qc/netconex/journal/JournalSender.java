@@ -0,0 +1,76 @@
+package qc.netconex.journal;
+
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import qc.netconex.ApiResponse;
+import qc.netconex.NetConex;
+import qc.netconex.Timeouts;
+
+/**
+ * The {@code JournalSender} class sends the requests of a
+ * {@link RequestJournal}, with the configuration of the instance the journal
+ * was opened for.
+ *
+ * @author William Beaudin
+ */
+final class JournalSender extends NetConex {
+
+    /**
+     * Constructs a new {@code JournalSender}. Retries are left to the journal,
+     * and deadlines, meant for the caller of a request, do not apply to
+     * deliveries happening in the background. Of the {@link Timeouts}, only the
+     * connect and first-byte budgets are kept, for every attempt: the total
+     * budget of a call would turn a slow response into a
+     * {@link qc.netconex.error.DeadlineExceededException}.
+     *
+     * @param requester The instance to copy the configuration from.
+     */
+    JournalSender(NetConex requester) {
+        super(requester);
+        setRetryPolicy(null);
+        setDeadline(null);
+        setJournal(null);
+        Timeouts timeouts = getTimeouts();
+        if (timeouts != null) {
+            setTimeouts(new Timeouts(timeouts.getConnectTimeout(), timeouts.getFirstByteTimeout(), 0));
+        }
+    }
+
+    /**
+     * Serializes a request body to JSON.
+     *
+     * @param requestBody The request body object.
+     * @return The UTF-8 encoded JSON.
+     * @throws JsonProcessingException If the object cannot be serialized.
+     */
+    byte[] serialize(Object requestBody) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(requestBody);
+    }
+
+    /**
+     * Makes one attempt at delivering a request.
+     *
+     * @param entry The request.
+     * @return The status code of the response.
+     * @throws Exception If the attempt fails, including with an error response.
+     */
+    int send(JournalEntry entry) throws Exception {
+        return exchange(entry.getEndpoint(), entry.getMethod(), connection -> {
+            byte[] body = entry.getBody();
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty(RequestJournal.IDEMPOTENCY_KEY_HEADER, entry.getIdempotencyKey());
+            connection.setFixedLengthStreamingMode(body.length);
+
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(body);
+            }
+
+            try (ApiResponse response = toResponse(connection, entry.getMethod())) {
+                return response.getStatusCode();
+            }
+        });
+    }
+}
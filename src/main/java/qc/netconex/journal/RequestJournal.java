@@ -0,0 +1,669 @@
+package qc.netconex.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import qc.netconex.NetConex;
+import qc.netconex.RetryPolicy;
+import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.HttpStatusCodeException;
+
+/**
+ * The {@code RequestJournal} class is a write-ahead journal for write requests:
+ * requests are stored on local disk first, and delivered in the background.
+ *
+ * <p>
+ * The journal is a directory of append-only segment files, memory-mapped and
+ * synced to disk in batches, so that {@link #enqueue} only waits for the next
+ * sync, whatever the latency or the availability of the server. The requests
+ * are then delivered by a background sender, at most
+ * {@link JournalOptions#getConcurrency()} at once, retrying them as configured
+ * by the retry policy. Requests not delivered yet when the journal is closed,
+ * or when the process dies, are delivered once it is opened again.
+ *
+ * <p>
+ * Delivery is at least once: a request may be sent again after a failed
+ * attempt or a restart. Every request is therefore sent with an
+ * {@value #IDEMPOTENCY_KEY_HEADER} header which stays the same across
+ * deliveries, for the server to recognize duplicates.
+ *
+ * <p>
+ * Requests are sent with the configuration the {@link NetConex} instance had
+ * when the journal was opened: base URL or load balancer, headers and
+ * timeouts.
+ *
+ * @author William Beaudin
+ */
+public final class RequestJournal implements AutoCloseable {
+
+    /**
+     * The header holding the idempotency key of a request.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * The directory of the journal.
+     */
+    private final Path directory;
+
+    /**
+     * The size of a segment file.
+     */
+    private final int segmentSize;
+
+    /**
+     * The time spent gathering writes between two syncs.
+     */
+    private final long syncDelay;
+
+    /**
+     * The retry policy of the deliveries.
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * The listener told about deliveries.
+     */
+    private final DeliveryListener listener;
+
+    /**
+     * The sender of the requests.
+     */
+    private final JournalSender sender;
+
+    /**
+     * The lock guarding the state of the journal and of its segments.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when there are records to sync.
+     */
+    private final Condition dirty = lock.newCondition();
+
+    /**
+     * Signalled when records were synced.
+     */
+    private final Condition durable = lock.newCondition();
+
+    /**
+     * Signalled when there are requests to deliver.
+     */
+    private final Condition available = lock.newCondition();
+
+    /**
+     * Signalled when the last pending request is done with.
+     */
+    private final Condition drained = lock.newCondition();
+
+    /**
+     * The segments, oldest first.
+     */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * The sequences of the requests being delivered.
+     */
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+
+    /**
+     * The sequences of the requests found done with when the journal was
+     * opened, still ahead of the cursor.
+     */
+    private final Set<Long> recoveredAcks = new HashSet<>();
+
+    /**
+     * The permits bounding the number of deliveries at once.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The executor running the deliveries.
+     */
+    private final ExecutorService deliveries = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * The thread handing the requests to the deliveries.
+     */
+    private final Thread dispatcher;
+
+    /**
+     * The thread syncing the records to disk.
+     */
+    private final Thread syncer;
+
+    /**
+     * The segment appended to.
+     */
+    private Segment active;
+
+    /**
+     * The segment the next request to deliver is read from.
+     */
+    private Segment cursor;
+
+    /**
+     * The position of the next record to read in the cursor segment.
+     */
+    private int cursorPosition;
+
+    /**
+     * The sequence of the next request.
+     */
+    private long nextSequence;
+
+    /**
+     * The sequence of the last request appended.
+     */
+    private long lastSequence;
+
+    /**
+     * The sequence of the last request synced to disk.
+     */
+    private long syncedSequence;
+
+    /**
+     * The number of requests not done with yet.
+     */
+    private long pending;
+
+    /**
+     * The error that stopped the syncs, or {@code null}.
+     */
+    private UncheckedIOException failure;
+
+    /**
+     * Whether the journal was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Opens the journal stored in the given directory with the default
+     * options, creating it if needed.
+     *
+     * @param requester The instance whose configuration is used to send the
+     *                  requests.
+     * @param directory The directory of the journal.
+     * @throws ApiRequestException If the journal cannot be opened.
+     */
+    public RequestJournal(NetConex requester, Path directory) throws ApiRequestException {
+        this(requester, directory, new JournalOptions());
+    }
+
+    /**
+     * Opens the journal stored in the given directory, creating it if needed,
+     * and starts delivering the requests left in it.
+     *
+     * @param requester The instance whose configuration is used to send the
+     *                  requests.
+     * @param directory The directory of the journal.
+     * @param options   The options of the journal.
+     * @throws ApiRequestException If the journal cannot be opened.
+     */
+    public RequestJournal(NetConex requester, Path directory, JournalOptions options) throws ApiRequestException {
+        this.directory = directory;
+        this.segmentSize = options.getSegmentSize();
+        this.syncDelay = options.getSyncDelay();
+        this.retryPolicy = options.getRetryPolicy() != null ? options.getRetryPolicy() : defaultRetryPolicy();
+        this.listener = options.getDeliveryListener() != null ? options.getDeliveryListener()
+                : new DeliveryListener() {
+                };
+        this.permits = new Semaphore(options.getConcurrency());
+        this.sender = new JournalSender(requester);
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException | UncheckedIOException e) {
+            throw new ApiRequestException("Error opening request journal " + directory, e);
+        }
+
+        this.syncer = Thread.ofPlatform().daemon().name("netconex-journal-sync").start(this::sync);
+        this.dispatcher = Thread.ofVirtual().name("netconex-journal-dispatch").start(this::dispatch);
+    }
+
+    /**
+     * Stores a request in the journal, to be delivered in the background. The
+     * method returns once the request is on disk.
+     *
+     * @param method      The HTTP method of the request.
+     * @param endpoint    The endpoint of the request, relative to the base URL.
+     * @param requestBody The request body object, serialized to JSON.
+     * @return The idempotency key the request will be sent with.
+     * @throws ApiRequestException If the request cannot be serialized or
+     *                             stored.
+     */
+    public String enqueue(String method, String endpoint, Object requestBody) throws ApiRequestException {
+        byte[] body;
+        try {
+            body = sender.serialize(requestBody);
+        } catch (IOException e) {
+            throw new ApiRequestException("Error serializing journaled " + method + " request body", e);
+        }
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new ApiRequestException("The request journal is closed");
+            }
+            long sequence = nextSequence;
+            append(Segment.encodeRequest(sequence, method, endpoint, idempotencyKey, body));
+            nextSequence++;
+            lastSequence = sequence;
+            pending++;
+            dirty.signal();
+
+            while (syncedSequence < sequence) {
+                if (failure != null) {
+                    throw new ApiRequestException("Error syncing request journal " + directory, failure);
+                }
+                durable.awaitUninterruptibly();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new ApiRequestException("Error writing to request journal " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+        return idempotencyKey;
+    }
+
+    /**
+     * Returns the number of requests not delivered, nor dropped, yet.
+     *
+     * @return The number of pending requests.
+     */
+    public long getPendingCount() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every request of the journal was delivered or dropped.
+     *
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return {@code true} if the journal was drained, {@code false} if the
+     *         timeout expired first.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public boolean awaitDrained(long timeout) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lock();
+        try {
+            while (pending > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the deliveries and syncs the journal to disk. The requests being
+     * delivered are interrupted and, like the ones not sent yet, will be
+     * delivered once the journal is opened again.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dirty.signalAll();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        dispatcher.interrupt();
+        deliveries.shutdownNow();
+        syncer.interrupt();
+        try {
+            dispatcher.join();
+            deliveries.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            syncer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the segments left in the directory, finds the requests not done
+     * with yet, and clears any record torn by a crash.
+     *
+     * @throws IOException If a segment cannot be read.
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(Segment::isSegment).sorted().toList();
+        }
+
+        Set<Long> requests = new HashSet<>();
+        Set<Long> acks = new HashSet<>();
+        long maxSequence = 0;
+        for (Path file : files) {
+            Segment segment = Segment.open(file);
+            maxSequence = Math.max(maxSequence, segment.id() - 1);
+            int position = 0;
+            for (int length; (length = segment.validate(position)) > 0; position += length) {
+                long sequence = segment.sequenceAt(position);
+                if (segment.typeAt(position) == Segment.REQUEST) {
+                    requests.add(sequence);
+                    maxSequence = Math.max(maxSequence, sequence);
+                } else {
+                    acks.add(sequence);
+                }
+            }
+            segment.position = position;
+            segment.synced = position;
+            segment.sealed = true;
+            segments.add(segment);
+        }
+
+        acks.retainAll(requests);
+        recoveredAcks.addAll(acks);
+        pending = requests.size() - acks.size();
+        nextSequence = maxSequence + 1;
+        lastSequence = maxSequence;
+        syncedSequence = maxSequence;
+
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(directory, nextSequence, segmentSize));
+        }
+        active = segments.get(segments.size() - 1);
+        active.sealed = false;
+        active.clearFrom(active.position);
+        cursor = segments.get(0);
+    }
+
+    /**
+     * Appends a record to the active segment, starting a new segment first if
+     * it does not fit. The active segment is only sealed once the new one
+     * exists, so a failed rollover leaves the journal as it was.
+     *
+     * @param record The encoded record.
+     * @throws IOException If a new segment cannot be created.
+     */
+    private void append(byte[] record) throws IOException {
+        if (record.length > active.capacity() - active.position) {
+            // Acknowledgements fill segments too, so several segments may be
+            // started without any new request in between.
+            long id = Math.max(nextSequence, active.id() + 1);
+            Segment next = Segment.create(directory, id, Math.max(segmentSize, record.length));
+
+            Segment full = active;
+            full.force(full.synced, full.position);
+            full.synced = full.position;
+            full.sealed = true;
+            syncedSequence = lastSequence;
+            durable.signalAll();
+            available.signalAll();
+
+            active = next;
+            segments.add(active);
+        }
+        active.append(record);
+    }
+
+    /**
+     * Syncs the records appended to disk, in batches, until the journal is
+     * closed.
+     */
+    private void sync() {
+        while (true) {
+            Segment segment;
+            int from;
+            int to;
+            long sequence;
+            lock.lock();
+            try {
+                while (!closed && active.synced == active.position) {
+                    dirty.awaitUninterruptibly();
+                }
+                if (active.synced == active.position) {
+                    return;
+                }
+                segment = active;
+                from = segment.synced;
+                to = segment.position;
+                sequence = lastSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                segment.force(from, to);
+            } catch (UncheckedIOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    durable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                segment.synced = Math.max(segment.synced, to);
+                syncedSequence = Math.max(syncedSequence, sequence);
+                durable.signalAll();
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            if (syncDelay > 0 && !closed) {
+                try {
+                    Thread.sleep(syncDelay);
+                } catch (InterruptedException e) {
+                    // Interrupted when closing, the loop syncs what is left.
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the requests to the deliveries, as permits become available, until
+     * the journal is closed.
+     */
+    private void dispatch() {
+        try {
+            while (true) {
+                permits.acquire();
+                JournalEntry entry = next();
+                if (entry == null) {
+                    return;
+                }
+                deliveries.execute(() -> deliver(entry));
+            }
+        } catch (InterruptedException | RejectedExecutionException e) {
+            // The journal is closing, the request stays in it.
+        }
+    }
+
+    /**
+     * Reads the next request to deliver, waiting for one to be synced.
+     *
+     * @return The request, or {@code null} if the journal was closed.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    private JournalEntry next() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!closed) {
+                if (cursorPosition < cursor.synced) {
+                    int at = cursorPosition;
+                    cursorPosition += cursor.lengthAt(at);
+                    if (cursor.typeAt(at) == Segment.ACK || recoveredAcks.remove(cursor.sequenceAt(at))) {
+                        continue;
+                    }
+                    JournalEntry entry = cursor.entryAt(at);
+                    inFlight.add(entry.getSequence());
+                    return entry;
+                }
+                if (cursor.sealed) {
+                    cursor = segments.get(segments.indexOf(cursor) + 1);
+                    cursorPosition = 0;
+                    releaseSegments();
+                    continue;
+                }
+                available.await();
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delivers a request, retrying it as configured.
+     *
+     * @param entry The request.
+     */
+    private void deliver(JournalEntry entry) {
+        boolean done = false;
+        try {
+            for (int attempt = 1; !closed; attempt++) {
+                try {
+                    int statusCode = sender.send(entry);
+                    done = true;
+                    listener.onDelivered(entry, statusCode);
+                    return;
+                } catch (Exception e) {
+                    if (closed) {
+                        return;
+                    }
+                    if (!isRetryable(e) || attempt >= retryPolicy.getMaxAttempts()) {
+                        done = true;
+                        listener.onDropped(entry, e);
+                        return;
+                    }
+                }
+                Thread.sleep(retryPolicy.backoff(attempt + 1));
+            }
+        } catch (InterruptedException e) {
+            // The journal is closing, the request stays in it.
+        } finally {
+            complete(entry, done);
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns whether a failed delivery may be attempted again. Unlike a call
+     * made on behalf of a caller, a delivery has all the time it needs, so only
+     * a request the server will never accept is given up on: a 4xx response
+     * other than 408 or 429, or an endpoint that is not a valid URL. Timeouts,
+     * I/O errors and 5xx responses are retried.
+     *
+     * @param error The error of the attempt.
+     * @return {@code true} if the delivery may be retried.
+     */
+    private static boolean isRetryable(Exception error) {
+        if (error instanceof HttpStatusCodeException e) {
+            int statusCode = e.getStatusCode();
+            return statusCode >= 500 || statusCode == 408 || statusCode == 429;
+        }
+        return !(error instanceof URISyntaxException || error instanceof MalformedURLException
+                || error instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Records the end of the delivery of a request.
+     *
+     * @param entry The request.
+     * @param done  Whether the request was delivered or dropped, and can be
+     *              removed from the journal.
+     */
+    private void complete(JournalEntry entry, boolean done) {
+        lock.lock();
+        try {
+            if (closed) {
+                // Nothing is written anymore, the request may be sent again.
+                return;
+            }
+            inFlight.remove(entry.getSequence());
+            if (done) {
+                try {
+                    append(Segment.encodeAck(entry.getSequence()));
+                    dirty.signal();
+                } catch (IOException | UncheckedIOException e) {
+                    // Without its acknowledgement, the request is only sent again after a restart.
+                }
+                if (--pending == 0) {
+                    drained.signalAll();
+                }
+            }
+            releaseSegments();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the oldest segments once every request they hold is done with.
+     * Segments are deleted in order, so the acknowledgements of the requests of
+     * a segment are never deleted before the requests themselves.
+     */
+    private void releaseSegments() {
+        while (segments.size() > 1) {
+            Segment oldest = segments.get(0);
+            if (oldest == cursor || oldest == active) {
+                return;
+            }
+            long next = segments.get(1).id();
+            if (!inFlight.isEmpty() && inFlight.first() < next) {
+                return;
+            }
+            segments.remove(0);
+            try {
+                oldest.delete();
+            } catch (IOException e) {
+                // At worst, its requests are sent again after a restart.
+            }
+        }
+    }
+
+    /**
+     * Returns the retry policy used when none is configured: deliveries are
+     * retried until they succeed.
+     *
+     * @return The retry policy.
+     */
+    private static RetryPolicy defaultRetryPolicy() {
+        RetryPolicy policy = new RetryPolicy(Integer.MAX_VALUE);
+        policy.setMaxBackoff(30000);
+        return policy;
+    }
+}
@@ -0,0 +1,350 @@
+package qc.netconex.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code Segment} class is one memory-mapped file of a
+ * {@link RequestJournal}, holding records appended one after the other.
+ *
+ * <p>
+ * A record is made of the length of its payload and the CRC32C of the payload,
+ * both as 4-byte integers, followed by the payload: a type byte, the 8-byte
+ * sequence of a request, and for a request record its method, endpoint,
+ * idempotency key and body, each prefixed with its length. Segment files are
+ * zero-filled when created, so the records stop at the first zero length, or
+ * at the first record whose checksum does not match, which is where a write
+ * was torn by a crash.
+ *
+ * <p>
+ * The mutable state of a segment is guarded by the lock of its journal.
+ *
+ * @author William Beaudin
+ */
+final class Segment {
+
+    /**
+     * The type of a record holding a request.
+     */
+    static final byte REQUEST = 1;
+
+    /**
+     * The type of a record marking a request as done with.
+     */
+    static final byte ACK = 2;
+
+    /**
+     * The size of the header of a record.
+     */
+    static final int HEADER = 8;
+
+    /**
+     * The prefix of the name of the segment files.
+     */
+    private static final String PREFIX = "segment-";
+
+    /**
+     * The suffix of the name of the segment files.
+     */
+    private static final String SUFFIX = ".log";
+
+    /**
+     * The path of the file.
+     */
+    private final Path path;
+
+    /**
+     * The id of the segment, which names its file. Ids increase from one
+     * segment to the next, and every request of the previous segments has a
+     * smaller sequence than the id.
+     */
+    private final long id;
+
+    /**
+     * The mapping of the whole file.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The position the next record is appended at.
+     */
+    int position;
+
+    /**
+     * The position up to which the records were synced to disk.
+     */
+    int synced;
+
+    /**
+     * Whether the segment is full and no longer appended to.
+     */
+    boolean sealed;
+
+    /**
+     * Constructs a new {@code Segment}.
+     *
+     * @param path   The path of the file.
+     * @param id     The id of the segment.
+     * @param buffer The mapping of the whole file.
+     */
+    private Segment(Path path, long id, MappedByteBuffer buffer) {
+        this.path = path;
+        this.id = id;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates a new, empty, segment file.
+     *
+     * @param directory The directory of the journal.
+     * @param id        The id of the segment, greater than the one of the last
+     *                  segment and than the sequence of every request so far.
+     * @param capacity  The size of the file in bytes.
+     * @return The segment.
+     * @throws IOException If the file cannot be created.
+     */
+    static Segment create(Path directory, long id, int capacity) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, id, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Mapping past the end of the file extends it with zeros.
+            return new Segment(path, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    /**
+     * Opens an existing segment file. Its records still have to be scanned to
+     * find where it ends.
+     *
+     * @param path The path of the file.
+     * @return The segment.
+     * @throws IOException If the file cannot be opened.
+     */
+    static Segment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long id = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(path, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns whether a file is a segment file.
+     *
+     * @param path The path of the file.
+     * @return {@code true} if the file is a segment file.
+     */
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+                && name.length() == PREFIX.length() + 20 + SUFFIX.length();
+    }
+
+    /**
+     * Encodes a request record.
+     *
+     * @param sequence       The sequence of the request.
+     * @param method         The HTTP method of the request.
+     * @param endpoint       The endpoint of the request.
+     * @param idempotencyKey The idempotency key of the request.
+     * @param body           The body of the request.
+     * @return The record.
+     */
+    static byte[] encodeRequest(long sequence, String method, String endpoint, String idempotencyKey,
+            byte[] body) {
+        byte[] methodBytes = method.getBytes(StandardCharsets.UTF_8);
+        byte[] endpointBytes = endpoint.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = idempotencyKey.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 8 + 2 + methodBytes.length + 4 + endpointBytes.length + 2 + keyBytes.length + 4
+                + body.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length).position(HEADER);
+        record.put(REQUEST).putLong(sequence);
+        record.putShort((short) methodBytes.length).put(methodBytes);
+        record.putInt(endpointBytes.length).put(endpointBytes);
+        record.putShort((short) keyBytes.length).put(keyBytes);
+        record.putInt(body.length).put(body);
+        return seal(record.array(), length);
+    }
+
+    /**
+     * Encodes an acknowledgement record.
+     *
+     * @param sequence The sequence of the request done with.
+     * @return The record.
+     */
+    static byte[] encodeAck(long sequence) {
+        int length = 1 + 8;
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length).position(HEADER);
+        record.put(ACK).putLong(sequence);
+        return seal(record.array(), length);
+    }
+
+    /**
+     * Writes the header of a record.
+     *
+     * @param record The record, with room for its header.
+     * @param length The length of the payload.
+     * @return The record.
+     */
+    private static byte[] seal(byte[] record, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(record, HEADER, length);
+        ByteBuffer.wrap(record).putInt(0, length).putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * Returns the id of the segment. Every request of the previous segments has
+     * a smaller sequence.
+     *
+     * @return The id.
+     */
+    long id() {
+        return id;
+    }
+
+    /**
+     * Returns the size of the file.
+     *
+     * @return The size in bytes.
+     */
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param record The encoded record, which must fit.
+     */
+    void append(byte[] record) {
+        buffer.put(position, record);
+        position += record.length;
+    }
+
+    /**
+     * Syncs a range of the file to disk.
+     *
+     * @param from The position of the first byte to sync.
+     * @param to   The position after the last byte to sync.
+     */
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    /**
+     * Checks the record at the given position.
+     *
+     * @param at The position of the record.
+     * @return The length of the whole record, or {@code -1} if there is no
+     *         valid record there.
+     */
+    int validate(int at) {
+        if (at + HEADER > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(at);
+        if (length < 1 + 8 || length > buffer.capacity() - at - HEADER) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(at + HEADER, length));
+        return (int) crc.getValue() == buffer.getInt(at + 4) ? HEADER + length : -1;
+    }
+
+    /**
+     * Returns the length of the whole record at the given position, which must
+     * be valid.
+     *
+     * @param at The position of the record.
+     * @return The length in bytes.
+     */
+    int lengthAt(int at) {
+        return HEADER + buffer.getInt(at);
+    }
+
+    /**
+     * Returns the type of the record at the given position.
+     *
+     * @param at The position of the record.
+     * @return {@link #REQUEST} or {@link #ACK}.
+     */
+    byte typeAt(int at) {
+        return buffer.get(at + HEADER);
+    }
+
+    /**
+     * Returns the request sequence of the record at the given position.
+     *
+     * @param at The position of the record.
+     * @return The sequence.
+     */
+    long sequenceAt(int at) {
+        return buffer.getLong(at + HEADER + 1);
+    }
+
+    /**
+     * Decodes the request record at the given position.
+     *
+     * @param at The position of the record.
+     * @return The request.
+     */
+    JournalEntry entryAt(int at) {
+        ByteBuffer record = buffer.slice(at + HEADER + 1, buffer.getInt(at) - 1);
+        long sequence = record.getLong();
+        String method = readString(record, record.getShort());
+        String endpoint = readString(record, record.getInt());
+        String idempotencyKey = readString(record, record.getShort());
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+        return new JournalEntry(sequence, method, endpoint, idempotencyKey, body);
+    }
+
+    /**
+     * Fills the file with zeros from the given position, so that a torn record
+     * left there can never be mistaken for a valid one later.
+     *
+     * @param from The position to clear from.
+     */
+    void clearFrom(int from) {
+        int end = from;
+        for (int i = from; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                end = i + 1;
+            }
+        }
+        force(from, end);
+    }
+
+    /**
+     * Deletes the file.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Reads a UTF-8 string from a record.
+     *
+     * @param record The record, positioned on the string.
+     * @param length The length of the string in bytes.
+     * @return The string.
+     */
+    private static String readString(ByteBuffer record, int length) {
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
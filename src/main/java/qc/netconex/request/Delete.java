@@ -5,8 +5,10 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.util.concurrent.CompletableFuture;
 
+import qc.netconex.ApiResponse;
 import qc.netconex.NetConex;
 import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.HttpStatusCodeException;
 
 /**
  * The {@code DELETE} class provides functionality for executing Delete
@@ -26,9 +28,7 @@ public class Delete extends NetConex {
      * @param requester The HttpRequester instance.
      */
     public Delete(NetConex requester) {
-        super(requester.getBaseUrl());
-        this.objectMapper = requester.getObjectMapper();
-        this.getHeaders().putAll(requester.getHeaders());
+        super(requester);
     }
 
     /**
@@ -40,21 +40,45 @@ public class Delete extends NetConex {
      */
     public String execute(String endpoint) throws ApiRequestException {
         try {
-            HttpURLConnection connection = createConnection(endpoint, "DELETE");
-            int responseCode = connection.getResponseCode();
+            return exchange(endpoint, "DELETE", connection -> {
+                int responseCode = connection.getResponseCode();
 
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                    StringBuilder response = new StringBuilder();
-                    String inputLine;
-                    while ((inputLine = in.readLine()) != null) {
-                        response.append(inputLine);
+                if (responseCode == HttpURLConnection.HTTP_OK) {
+                    try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+                        StringBuilder response = new StringBuilder();
+                        String inputLine;
+                        while ((inputLine = in.readLine()) != null) {
+                            response.append(inputLine);
+                        }
+                        return response.toString();
                     }
-                    return response.toString();
+                } else {
+                    throw HttpStatusCodeException.fromConnection(connection,
+                            "DELETE request failed with response code: " + responseCode);
                 }
-            } else {
-                throw new ApiRequestException("DELETE request failed with response code: " + responseCode);
-            }
+            });
+        } catch (ApiRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiRequestException("Error executing DELETE request", e);
+        }
+    }
+
+    /**
+     * Executes a DELETE request with the specified endpoint, returning the
+     * response without reading its body.
+     * 
+     * @param endpoint The endpoint for the DELETE request.
+     * @return The response, to be closed once done with.
+     * @throws ApiRequestException If there is an error executing the request,
+     *                             or a {@link HttpStatusCodeException} if the
+     *                             server answers with an error response.
+     */
+    public ApiResponse executeForResponse(String endpoint) throws ApiRequestException {
+        try {
+            return exchange(endpoint, "DELETE", connection -> toResponse(connection, "DELETE"));
+        } catch (ApiRequestException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiRequestException("Error executing DELETE request", e);
         }
@@ -0,0 +1,382 @@
+package qc.netconex.request;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.HttpStatusCodeException;
+
+/**
+ * The {@code EventStream} class delivers the items of a long-lived streaming
+ * response to a {@link Flow.Subscriber} as they arrive.
+ *
+ * <p>
+ * The response is read on a dedicated virtual thread which only reads from the
+ * connection while the subscriber has outstanding demand, so a slow subscriber
+ * slows the upstream down through TCP flow control instead of having items
+ * buffered in memory. Lost connections, including ones that stay silent for
+ * longer than the heartbeat timeout, are reopened as configured by the
+ * {@link StreamOptions}, resuming from the last event ID when there is one.
+ *
+ * <p>
+ * Closing the stream cancels the subscription and drops the connection.
+ *
+ * @param <T> The type of the delivered items.
+ * @author William Beaudin
+ */
+public final class EventStream<T> implements Flow.Subscription, AutoCloseable {
+
+    /**
+     * Opens the connections of the stream.
+     */
+    interface Connector {
+        /**
+         * Opens a connection, resuming from the given event ID.
+         *
+         * @param lastEventId The event ID to resume from, or {@code null}.
+         * @return The configured connection.
+         * @throws Exception If the connection cannot be created.
+         */
+        HttpURLConnection open(String lastEventId) throws Exception;
+
+        /**
+         * Releases a connection the stream is done with, whether it ended,
+         * failed or was closed.
+         *
+         * @param connection The connection returned by {@link #open}.
+         */
+        void release(HttpURLConnection connection);
+    }
+
+    /**
+     * The connector opening each connection.
+     */
+    private final Connector connector;
+
+    /**
+     * The decoder turning lines into items.
+     */
+    private final StreamDecoder<T> decoder;
+
+    /**
+     * The options of the stream.
+     */
+    private final StreamOptions options;
+
+    /**
+     * The subscriber receiving the items.
+     */
+    private final Flow.Subscriber<? super T> subscriber;
+
+    /**
+     * The future completed when the stream terminates.
+     */
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    /**
+     * The lock guarding the demand.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when demand is added or the stream is cancelled.
+     */
+    private final Condition demandAvailable = lock.newCondition();
+
+    /**
+     * The number of items requested but not delivered yet.
+     */
+    private long demand;
+
+    /**
+     * Whether the stream was cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * The connection currently open, or {@code null}.
+     */
+    private volatile HttpURLConnection connection;
+
+    /**
+     * Constructs a new {@code EventStream}. The stream starts reading once
+     * {@link #start()} is called.
+     *
+     * @param connector  The connector opening each connection.
+     * @param decoder    The decoder turning lines into items.
+     * @param options    The options of the stream.
+     * @param subscriber The subscriber receiving the items.
+     */
+    EventStream(Connector connector, StreamDecoder<T> decoder, StreamOptions options,
+            Flow.Subscriber<? super T> subscriber) {
+        this.connector = connector;
+        this.decoder = decoder;
+        this.options = options;
+        this.subscriber = subscriber;
+    }
+
+    /**
+     * Subscribes the subscriber and starts reading the stream.
+     *
+     * @return This stream.
+     */
+    EventStream<T> start() {
+        subscriber.onSubscribe(this);
+        Thread.ofVirtual().name("netconex-event-stream").start(this::run);
+        return this;
+    }
+
+    /**
+     * Adds the given number of items to the demand of the subscriber.
+     *
+     * @param n The number of items requested, must be positive.
+     */
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Requested item count must be positive: " + n));
+            return;
+        }
+        lock.lock();
+        try {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            demandAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels the subscription and drops the connection.
+     */
+    @Override
+    public void cancel() {
+        if (terminate()) {
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * Closes the stream, same as {@link #cancel()}.
+     */
+    @Override
+    public void close() {
+        cancel();
+    }
+
+    /**
+     * Returns a future completed when the stream terminates, exceptionally if
+     * it failed.
+     *
+     * @return The completion future.
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /**
+     * Returns the ID the stream would resume from if it reconnected now.
+     *
+     * @return The last event ID, or {@code null}.
+     */
+    public String getLastEventId() {
+        return decoder.lastEventId();
+    }
+
+    /**
+     * Reads the stream, reconnecting as configured, until it completes, fails
+     * or is cancelled.
+     */
+    private void run() {
+        int attempts = 0;
+        while (!cancelled) {
+            HttpURLConnection current = null;
+            try {
+                current = connector.open(decoder.lastEventId());
+                connection = current;
+                if (cancelled) {
+                    current.disconnect();
+                    return;
+                }
+
+                int responseCode = current.getResponseCode();
+                if (responseCode == HttpURLConnection.HTTP_NO_CONTENT) {
+                    complete();
+                    return;
+                }
+                if (responseCode != HttpURLConnection.HTTP_OK) {
+                    current.disconnect();
+                    if (responseCode < HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                        fail(new HttpStatusCodeException(responseCode,
+                                "Stream request failed with response code: " + responseCode));
+                        return;
+                    }
+                    throw new IOException("Stream request failed with response code: " + responseCode);
+                }
+
+                attempts = 0;
+                try (InputStream in = current.getInputStream()) {
+                    LineReader reader = new LineReader(in);
+                    Consumer<T> sink = this::emit;
+                    while (!cancelled && reader.readLine()) {
+                        decoder.decode(reader.line(), reader.length(), sink);
+                    }
+                }
+                decoder.reset();
+                if (!options.isReconnect() || !decoder.endless()) {
+                    complete();
+                    return;
+                }
+            } catch (IOException e) {
+                // Also reached when the heartbeat timeout expires.
+                decoder.reset();
+                if (cancelled || !canReconnect(++attempts, e)) {
+                    return;
+                }
+            } catch (ApiRequestException | RuntimeException e) {
+                fail(e);
+                return;
+            } catch (Exception e) {
+                fail(new ApiRequestException("Error opening stream", e));
+                return;
+            } finally {
+                if (current != null) {
+                    connector.release(current);
+                }
+            }
+
+            if (!cancelled) {
+                long retry = decoder.retry();
+                try {
+                    Thread.sleep(retry >= 0 ? retry : options.getReconnectDelay());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(new ApiRequestException("Stream interrupted while reconnecting", e));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the stream may reconnect after losing its connection,
+     * failing it otherwise.
+     *
+     * @param attempts The number of consecutive failed attempts.
+     * @param cause    The cause of the lost connection.
+     * @return {@code true} if the stream should reconnect.
+     */
+    private boolean canReconnect(int attempts, IOException cause) {
+        if (options.isReconnect(decoder.endless()) && attempts <= options.getMaxReconnectAttempts()) {
+            return true;
+        }
+        fail(new ApiRequestException("Stream connection lost", cause));
+        return false;
+    }
+
+    /**
+     * Delivers an item to the subscriber, waiting for demand first.
+     *
+     * @param item The item to deliver.
+     */
+    private void emit(T item) {
+        lock.lock();
+        try {
+            while (demand == 0 && !cancelled) {
+                demandAvailable.awaitUninterruptibly();
+            }
+            if (cancelled) {
+                return;
+            }
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        subscriber.onNext(item);
+    }
+
+    /**
+     * Completes the stream normally.
+     */
+    private void complete() {
+        if (terminate()) {
+            subscriber.onComplete();
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * Terminates the stream with an error.
+     *
+     * @param error The error.
+     */
+    private void fail(Throwable error) {
+        if (terminate()) {
+            subscriber.onError(error);
+            completion.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Marks the stream as terminated, drops the connection and wakes up the
+     * reading thread.
+     *
+     * @return {@code true} if the stream was not terminated already.
+     */
+    private boolean terminate() {
+        lock.lock();
+        try {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            demandAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        HttpURLConnection current = connection;
+        if (current != null) {
+            current.disconnect();
+        }
+        return true;
+    }
+
+    /**
+     * Adapts a listener to a subscriber with unbounded demand.
+     *
+     * @param <T>      The type of the delivered items.
+     * @param listener The listener receiving the items.
+     * @return The subscriber.
+     */
+    static <T> Flow.Subscriber<T> listening(Consumer<? super T> listener) {
+        return new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                listener.accept(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                // Reported through the completion future.
+            }
+
+            @Override
+            public void onComplete() {
+                // Reported through the completion future.
+            }
+        };
+    }
+}
@@ -0,0 +1,224 @@
+package qc.netconex.request;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.HttpStatusCodeException;
+
+/**
+ * The {@code FileTransfer} class moves files between the disk and HTTP
+ * connections without loading them in memory.
+ *
+ * <p>
+ * Uploads are read through memory-mapped windows of the file and sent with a
+ * fixed-length streaming body, downloads are written straight to a
+ * {@link FileChannel}, so the heap only ever holds a transfer buffer whatever
+ * the size of the file.
+ *
+ * @author William Beaudin
+ */
+final class FileTransfer {
+
+    /**
+     * The size of the file windows mapped in memory while uploading.
+     */
+    private static final long UPLOAD_WINDOW = 4L * 1024 * 1024;
+
+    /**
+     * The maximum number of bytes written to disk between two progress updates
+     * while downloading.
+     */
+    private static final long DOWNLOAD_CHUNK = 1024L * 1024;
+
+    /**
+     * This class only has static methods.
+     */
+    private FileTransfer() {
+    }
+
+    /**
+     * Sends the given file as the body of the request and reads the response.
+     *
+     * @param connection  The connection, not connected yet.
+     * @param file        The file to send.
+     * @param contentType The media type of the file.
+     * @param listener    The listener receiving progress updates, or
+     *                    {@code null}.
+     * @return The response body.
+     * @throws ApiRequestException If the response code is not a success.
+     * @throws IOException         If an I/O error occurs.
+     */
+    static String upload(HttpURLConnection connection, Path file, String contentType,
+            TransferProgressListener listener) throws ApiRequestException, IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", contentType);
+            connection.setFixedLengthStreamingMode(size);
+
+            try (OutputStream os = connection.getOutputStream()) {
+                WritableByteChannel out = Channels.newChannel(os);
+                long position = 0;
+                while (position < size) {
+                    long length = Math.min(UPLOAD_WINDOW, size - position);
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    while (window.hasRemaining()) {
+                        out.write(window);
+                    }
+                    position += length;
+                    if (listener != null) {
+                        listener.onProgress(position, size);
+                    }
+                }
+            }
+        }
+
+        int responseCode = connection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_CREATED
+                || responseCode == HttpURLConnection.HTTP_NO_CONTENT) {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+                StringBuilder response = new StringBuilder();
+                String inputLine;
+                while ((inputLine = in.readLine()) != null) {
+                    response.append(inputLine);
+                }
+                return response.toString();
+            }
+        } else {
+            throw HttpStatusCodeException.fromConnection(connection,
+                    connection.getRequestMethod() + " request failed with response code: " + responseCode);
+        }
+    }
+
+    /**
+     * Downloads the response of the request to the given file. When resuming,
+     * only the bytes missing from the file are requested with a {@code Range}
+     * header, and the file is rewritten from the start if the server ignores it.
+     *
+     * @param connection The connection, not connected yet.
+     * @param target     The file to write to.
+     * @param resume     Whether to resume from the current size of the file.
+     * @param listener   The listener receiving progress updates, or
+     *                   {@code null}.
+     * @return The size of the downloaded file.
+     * @throws ApiRequestException If the response code is not a success.
+     * @throws IOException         If an I/O error occurs, or if the body ends
+     *                             before its {@code Content-Length}.
+     */
+    static long download(HttpURLConnection connection, Path target, boolean resume,
+            TransferProgressListener listener) throws ApiRequestException, IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = resume ? channel.size() : 0;
+            if (offset > 0) {
+                connection.setRequestProperty("Range", "bytes=" + offset + "-");
+            }
+
+            int responseCode = connection.getResponseCode();
+            if (responseCode == 416 && offset > 0) {
+                connection.disconnect();
+                return offset;
+            }
+            if (responseCode == HttpURLConnection.HTTP_OK) {
+                offset = 0;
+            } else if (responseCode != HttpURLConnection.HTTP_PARTIAL || offset == 0) {
+                throw HttpStatusCodeException.fromConnection(connection,
+                        "GET request failed with response code: " + responseCode);
+            }
+            channel.truncate(offset);
+
+            long length = connection.getContentLengthLong();
+            long total = length < 0 ? -1 : offset + length;
+            long start = offset;
+            try (InputStream in = connection.getInputStream()) {
+                long written = transfer(in, channel, offset, length, transferred -> {
+                    if (listener != null) {
+                        listener.onProgress(start + transferred, total);
+                    }
+                });
+                if (length >= 0 && written != length) {
+                    // What was written is kept, so the download can be resumed.
+                    throw new IOException("Download ended after " + (start + written) + " of " + total + " bytes");
+                }
+                return start + written;
+            }
+        }
+    }
+
+    /**
+     * Downloads one byte range of a file, requested with a {@code Range} header,
+     * to its position in the given channel.
+     *
+     * @param connection The connection, not connected yet.
+     * @param channel    The channel of the file to write to.
+     * @param first      The position of the first byte of the range.
+     * @param last       The position of the last byte of the range, inclusive.
+     * @param progress   Receives the number of bytes written after every chunk.
+     * @throws ApiRequestException If the server does not return the range.
+     * @throws IOException         If an I/O error occurs.
+     */
+    static void downloadRange(HttpURLConnection connection, FileChannel channel, long first, long last,
+            LongConsumer progress) throws ApiRequestException, IOException {
+        connection.setRequestProperty("Range", "bytes=" + first + "-" + last);
+        int responseCode = connection.getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_PARTIAL) {
+            // The body may be the whole file, so it is not worth skipping.
+            connection.disconnect();
+            throw new HttpStatusCodeException(responseCode,
+                    "GET range request failed with response code: " + responseCode);
+        }
+
+        long length = last - first + 1;
+        long[] reported = new long[1];
+        try (InputStream in = connection.getInputStream()) {
+            long written = transfer(in, channel, first, length, transferred -> {
+                progress.accept(transferred - reported[0]);
+                reported[0] = transferred;
+            });
+            if (written != length) {
+                throw new IOException("Range " + first + "-" + last + " ended after " + written + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Writes the content of the stream to the channel, starting at the given
+     * position.
+     *
+     * @param in       The stream to read from.
+     * @param channel  The channel to write to.
+     * @param position The position of the first byte in the channel.
+     * @param length   The number of bytes expected, or {@code -1} if unknown.
+     * @param progress Receives the total number of bytes written after every
+     *                 chunk.
+     * @return The number of bytes written.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static long transfer(InputStream in, FileChannel channel, long position, long length,
+            LongConsumer progress) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(in);
+        long written = 0;
+        while (length < 0 || written < length) {
+            long count = length < 0 ? DOWNLOAD_CHUNK : Math.min(DOWNLOAD_CHUNK, length - written);
+            long transferred = channel.transferFrom(source, position + written, count);
+            if (transferred == 0) {
+                break;
+            }
+            written += transferred;
+            progress.accept(written);
+        }
+        return written;
+    }
+}
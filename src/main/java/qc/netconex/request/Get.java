@@ -1,11 +1,30 @@
 package qc.netconex.request;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
+import qc.netconex.ApiResponse;
 import qc.netconex.NetConex;
 import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.HttpStatusCodeException;
 
 /**
  * The Get class provides functionality for executing GET requests.
@@ -24,21 +43,19 @@ public class Get extends NetConex {
      * @param requester The HttpRequester instance.
      */
     public Get(NetConex requester) {
-        super(requester.getBaseUrl());
-        this.objectMapper = requester.getObjectMapper();
-        this.getHeaders().putAll(requester.getHeaders());
+        super(requester);
     }
 
     /**
-     * Executes a GET request with the specified endpoint.
+     * Executes a GET request with the specified endpoint. The request is hedged
+     * if a {@link qc.netconex.HedgingPolicy} is set.
      * 
      * @param endpoint The endpoint for the GET request.
      * @return The response from the GET request.
      * @throws ApiRequestException If there is an error executing the request.
      */
     public String execute(String endpoint) throws ApiRequestException {
-        try {
-            HttpURLConnection connection = createConnection(endpoint, "GET");
+        return executeHedged(endpoint, "GET", connection -> {
             int responseCode = connection.getResponseCode();
 
             if (responseCode == HttpURLConnection.HTTP_OK) {
@@ -51,11 +68,10 @@ public class Get extends NetConex {
                     return response.toString();
                 }
             } else {
-                throw new ApiRequestException("GET request failed with response code: " + responseCode);
+                throw HttpStatusCodeException.fromConnection(connection,
+                        "GET request failed with response code: " + responseCode);
             }
-        } catch (Exception e) {
-            throw new ApiRequestException("Error executing GET request", e);
-        }
+        });
     }
 
     /**
@@ -71,11 +87,329 @@ public class Get extends NetConex {
      *                             deserializing the response.
      */
     public <T> T executeAndDeserialize(String endPoint, Class<T> responseType) throws ApiRequestException {
-        try {
-            String jsonResponse = execute(endPoint);
-            return objectMapper.readValue(jsonResponse, responseType);
+        try (ApiResponse response = executeForResponse(endPoint)) {
+            return response.readValue(responseType);
+        } catch (HttpStatusCodeException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiRequestException("Error executing GET request and deserializing response", e);
         }
     }
+
+    /**
+     * Executes a GET request with the specified endpoint, returning the response
+     * without reading its body. The request is hedged if a
+     * {@link qc.netconex.HedgingPolicy} is set.
+     * 
+     * @param endpoint The endpoint for the GET request.
+     * @return The response, to be closed once done with.
+     * @throws ApiRequestException If there is an error executing the request,
+     *                             or a {@link HttpStatusCodeException} if the
+     *                             server answers with an error response.
+     */
+    public ApiResponse executeForResponse(String endpoint) throws ApiRequestException {
+        return executeHedged(endpoint, "GET", connection -> toResponse(connection, "GET"));
+    }
+
+    /**
+     * Downloads the response of a GET request to the specified file, replacing
+     * its content.
+     * 
+     * @param endpoint The endpoint for the GET request.
+     * @param target   The file to write the response to.
+     * @return The size of the downloaded file in bytes.
+     * @throws ApiRequestException If there is an error executing the request or
+     *                             writing the file.
+     */
+    public long download(String endpoint, Path target) throws ApiRequestException {
+        return download(endpoint, target, false, null);
+    }
+
+    /**
+     * Downloads the response of a GET request to the specified file. The
+     * response is written straight to disk, without being held in memory.
+     * 
+     * <p>
+     * When resuming, only the bytes missing from the file are requested with a
+     * {@code Range} header. If the server does not support ranges, the file is
+     * downloaded again from the start.
+     * 
+     * @param endpoint The endpoint for the GET request.
+     * @param target   The file to write the response to.
+     * @param resume   Whether to resume from the current size of the file.
+     * @param listener The listener receiving progress updates, or {@code null}.
+     * @return The size of the downloaded file in bytes.
+     * @throws ApiRequestException If there is an error executing the request or
+     *                             writing the file.
+     */
+    public long download(String endpoint, Path target, boolean resume, TransferProgressListener listener)
+            throws ApiRequestException {
+        try {
+            return exchange(endpoint, "GET", ExchangeKind.TRANSFER,
+                    connection -> FileTransfer.download(connection, target, resume, listener));
+        } catch (ApiRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiRequestException("Error executing GET request", e);
+        }
+    }
+
+    /**
+     * Downloads the response of a GET request to the specified file, fetching
+     * {@code parts} byte ranges of it in parallel.
+     * 
+     * <p>
+     * The size of the file and the support for ranges are checked first with a
+     * HEAD request. When the server does not advertise
+     * {@code Accept-Ranges: bytes} or the size is unknown, the file is
+     * downloaded with a single request instead.
+     * 
+     * <p>
+     * The ranges are written to a {@code .part} file next to the target, moved
+     * in place once every range was downloaded. If any of them fails, the target
+     * is left untouched.
+     * 
+     * @param endpoint The endpoint for the GET request.
+     * @param target   The file to write the response to.
+     * @param parts    The number of ranges to download in parallel.
+     * @param listener The listener receiving progress updates, or {@code null}.
+     * @return The size of the downloaded file in bytes.
+     * @throws ApiRequestException If there is an error executing the requests or
+     *                             writing the file.
+     */
+    public long downloadParallel(String endpoint, Path target, int parts, TransferProgressListener listener)
+            throws ApiRequestException {
+        try {
+            long size = exchange(endpoint, "HEAD", head -> {
+                int responseCode = head.getResponseCode();
+                boolean acceptsRanges = "bytes".equalsIgnoreCase(head.getHeaderField("Accept-Ranges"));
+                if (responseCode == HttpURLConnection.HTTP_OK) {
+                    head.getInputStream().close();
+                } else {
+                    head.disconnect();
+                }
+                return responseCode == HttpURLConnection.HTTP_OK && acceptsRanges ? head.getContentLengthLong() : -1;
+            });
+
+            if (size <= 0 || parts <= 1) {
+                return download(endpoint, target, false, listener);
+            }
+
+            long count = Math.min(parts, size);
+            long partSize = (size + count - 1) / count;
+            AtomicLong transferred = new AtomicLong();
+            LongConsumer progress = written -> {
+                long total = transferred.addAndGet(written);
+                if (listener != null) {
+                    listener.onProgress(total, size);
+                }
+            };
+
+            // The ranges are written to a file of their own, which only replaces
+            // the target once all of them arrived: a file full of zero-filled
+            // holes would otherwise look complete to a resumed download.
+            Path part = target.resolveSibling(target.getFileName() + ".part");
+            try {
+                try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    // Ranges can only be written below the current size of the file.
+                    channel.write(ByteBuffer.allocate(1), size - 1);
+
+                    List<Future<Void>> futures = new ArrayList<>();
+                    for (long first = 0; first < size; first += partSize) {
+                        long start = first;
+                        long last = Math.min(size, first + partSize) - 1;
+                        futures.add(executor.submit(() -> {
+                            return exchange(endpoint, "GET", ExchangeKind.TRANSFER, connection -> {
+                                FileTransfer.downloadRange(connection, channel, start, last, progress);
+                                return null;
+                            });
+                        }));
+                    }
+                    for (Future<Void> future : futures) {
+                        try {
+                            future.get();
+                        } catch (ExecutionException e) {
+                            futures.forEach(other -> other.cancel(true));
+                            if (e.getCause() instanceof ApiRequestException cause) {
+                                throw cause;
+                            }
+                            throw new ApiRequestException("Error downloading file range", e.getCause());
+                        }
+                    }
+                }
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(part);
+            }
+            return size;
+        } catch (ApiRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiRequestException("Error executing GET request", e);
+        }
+    }
+
+    /**
+     * Subscribes to the Server-Sent Events stream at the specified endpoint
+     * using the default {@link StreamOptions}.
+     * 
+     * @param endpoint   The endpoint of the {@code text/event-stream}.
+     * @param subscriber The subscriber receiving the events.
+     * @return The running stream, to be closed once no longer needed.
+     */
+    public EventStream<ServerSentEvent> subscribe(String endpoint,
+            Flow.Subscriber<? super ServerSentEvent> subscriber) {
+        return subscribe(endpoint, new StreamOptions(), subscriber);
+    }
+
+    /**
+     * Subscribes to the Server-Sent Events stream at the specified endpoint.
+     * Events are only read from the connection as the subscriber requests them,
+     * and the stream reconnects with the {@code Last-Event-ID} header when the
+     * connection is lost.
+     * 
+     * @param endpoint   The endpoint of the {@code text/event-stream}.
+     * @param options    The options of the stream.
+     * @param subscriber The subscriber receiving the events.
+     * @return The running stream, to be closed once no longer needed.
+     */
+    public EventStream<ServerSentEvent> subscribe(String endpoint, StreamOptions options,
+            Flow.Subscriber<? super ServerSentEvent> subscriber) {
+        return new EventStream<>(connector(endpoint, "text/event-stream", options),
+                new SseDecoder(options.getLastEventId()), options, subscriber).start();
+    }
+
+    /**
+     * Subscribes to the Server-Sent Events stream at the specified endpoint,
+     * passing every event to the listener as soon as it arrives. Errors are
+     * reported through {@link EventStream#completion()}.
+     * 
+     * @param endpoint The endpoint of the {@code text/event-stream}.
+     * @param listener The listener receiving the events.
+     * @return The running stream, to be closed once no longer needed.
+     */
+    public EventStream<ServerSentEvent> subscribe(String endpoint, Consumer<? super ServerSentEvent> listener) {
+        return subscribe(endpoint, new StreamOptions(), EventStream.listening(listener));
+    }
+
+    /**
+     * Subscribes to the newline-delimited JSON stream at the specified endpoint
+     * using the default {@link StreamOptions}.
+     * 
+     * @param <T>          The type to which each line should be deserialized.
+     * @param endpoint     The endpoint of the NDJSON stream.
+     * @param responseType The class type to which each line should be
+     *                     deserialized.
+     * @param subscriber   The subscriber receiving the objects.
+     * @return The running stream, to be closed once no longer needed.
+     */
+    public <T> EventStream<T> subscribeNdjson(String endpoint, Class<T> responseType,
+            Flow.Subscriber<? super T> subscriber) {
+        return subscribeNdjson(endpoint, responseType, new StreamOptions(), subscriber);
+    }
+
+    /**
+     * Subscribes to the newline-delimited JSON stream at the specified endpoint,
+     * deserializing every line into the specified type. Lines are only read from
+     * the connection as the subscriber requests them.
+     * 
+     * <p>
+     * The stream completes when the response ends, and fails when the
+     * connection is lost. Since NDJSON has no event IDs, a stream reopened
+     * after a lost connection is sent again from the start, so reconnecting
+     * must be enabled explicitly with {@link StreamOptions#setReconnect}.
+     * 
+     * @param <T>          The type to which each line should be deserialized.
+     * @param endpoint     The endpoint of the NDJSON stream.
+     * @param responseType The class type to which each line should be
+     *                     deserialized.
+     * @param options      The options of the stream.
+     * @param subscriber   The subscriber receiving the objects.
+     * @return The running stream, to be closed once no longer needed.
+     */
+    public <T> EventStream<T> subscribeNdjson(String endpoint, Class<T> responseType, StreamOptions options,
+            Flow.Subscriber<? super T> subscriber) {
+        return new EventStream<>(connector(endpoint, "application/x-ndjson", options),
+                new NdjsonDecoder<T>(objectMapper.readerFor(responseType)), options, subscriber).start();
+    }
+
+    /**
+     * Subscribes to the newline-delimited JSON stream at the specified endpoint,
+     * passing every object to the listener as soon as it arrives. Errors are
+     * reported through {@link EventStream#completion()}.
+     * 
+     * @param <T>          The type to which each line should be deserialized.
+     * @param endpoint     The endpoint of the NDJSON stream.
+     * @param responseType The class type to which each line should be
+     *                     deserialized.
+     * @param listener     The listener receiving the objects.
+     * @return The running stream, to be closed once no longer needed.
+     */
+    public <T> EventStream<T> subscribeNdjson(String endpoint, Class<T> responseType,
+            Consumer<? super T> listener) {
+        return subscribeNdjson(endpoint, responseType, new StreamOptions(), EventStream.listening(listener));
+    }
+
+    /**
+     * Returns the connector opening the connections of a stream.
+     * 
+     * @param endpoint The endpoint of the stream.
+     * @param accept   The media type of the stream.
+     * @param options  The options of the stream.
+     * @return The connector.
+     */
+    private EventStream.Connector connector(String endpoint, String accept, StreamOptions options) {
+        return new EventStream.Connector() {
+            @Override
+            public HttpURLConnection open(String lastEventId) throws Exception {
+                return openStream(endpoint, accept, options, lastEventId);
+            }
+
+            @Override
+            public void release(HttpURLConnection connection) {
+                Get.this.release(connection);
+            }
+        };
+    }
+
+    /**
+     * Opens a connection to a streaming endpoint and waits for the status of
+     * the response. Like every other request, opening it goes through the load
+     * balancer, which is told whether the endpoint answered, and counts the
+     * stream in flight until its connection is released.
+     * 
+     * @param endpoint    The endpoint of the stream.
+     * @param accept      The media type of the stream.
+     * @param options     The options of the stream.
+     * @param lastEventId The event ID to resume from, or {@code null}.
+     * @return The connection, with its status received.
+     * @throws IOException If the connection fails or the server answers with a
+     *                     5xx code, so that the stream reconnects.
+     * @throws Exception   If the connection cannot be created.
+     */
+    private HttpURLConnection openStream(String endpoint, String accept, StreamOptions options, String lastEventId)
+            throws Exception {
+        try {
+            return exchange(endpoint, "GET", ExchangeKind.STREAM, connection -> {
+                connection.setRequestProperty("Accept", accept);
+                connection.setRequestProperty("Cache-Control", "no-cache");
+                if (lastEventId != null) {
+                    connection.setRequestProperty("Last-Event-ID", lastEventId);
+                }
+                connection.setReadTimeout(options.getHeartbeatTimeout());
+
+                int responseCode = connection.getResponseCode();
+                if (responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                    connection.disconnect();
+                    throw new HttpStatusCodeException(responseCode,
+                            "Stream request failed with response code: " + responseCode);
+                }
+                return connection;
+            });
+        } catch (HttpStatusCodeException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
 }
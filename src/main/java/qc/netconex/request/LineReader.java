@@ -0,0 +1,139 @@
+package qc.netconex.request;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * The {@code LineReader} class splits a byte stream into lines terminated by
+ * {@code "\r\n"}, {@code "\n"} or {@code "\r"}.
+ *
+ * <p>
+ * Lines are handed out as a view over a buffer that is reused from one line to
+ * the next, so reading does not allocate once the buffer has grown to the
+ * longest line.
+ *
+ * @author William Beaudin
+ */
+final class LineReader {
+
+    /**
+     * The stream to read from.
+     */
+    private final InputStream in;
+
+    /**
+     * The bytes read from the stream but not consumed yet.
+     */
+    private final byte[] buffer = new byte[8192];
+
+    /**
+     * The position of the next unconsumed byte in the buffer.
+     */
+    private int position;
+
+    /**
+     * The number of valid bytes in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The current line.
+     */
+    private byte[] line = new byte[256];
+
+    /**
+     * The length of the current line.
+     */
+    private int length;
+
+    /**
+     * Whether a {@code '\n'} directly following the last {@code '\r'} must be
+     * skipped.
+     */
+    private boolean skipLineFeed;
+
+    /**
+     * Constructs a new {@code LineReader} over the given stream.
+     *
+     * @param in The stream to read from.
+     */
+    LineReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next line. An unterminated line at the end of the stream is
+     * returned as a line too.
+     *
+     * @return {@code false} if the end of the stream was reached.
+     * @throws IOException If an I/O error occurs.
+     */
+    boolean readLine() throws IOException {
+        length = 0;
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return read;
+                }
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            read = true;
+            int start = position;
+            while (position < limit) {
+                byte b = buffer[position];
+                if (b == '\n' || b == '\r') {
+                    append(start, position - start);
+                    position++;
+                    skipLineFeed = b == '\r';
+                    return true;
+                }
+                position++;
+            }
+            append(start, position - start);
+        }
+    }
+
+    /**
+     * Returns the buffer holding the current line. Only the first
+     * {@link #length()} bytes are part of the line.
+     *
+     * @return The line buffer.
+     */
+    byte[] line() {
+        return line;
+    }
+
+    /**
+     * Returns the length of the current line.
+     *
+     * @return The length in bytes.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Appends bytes of the read buffer to the current line.
+     *
+     * @param start The position of the first byte to append.
+     * @param count The number of bytes to append.
+     */
+    private void append(int start, int count) {
+        if (length + count > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+        }
+        System.arraycopy(buffer, start, line, length, count);
+        length += count;
+    }
+}
@@ -0,0 +1,88 @@
+package qc.netconex.request;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import qc.netconex.error.JsonParsingException;
+
+/**
+ * The {@code NdjsonDecoder} class decodes each line of a newline-delimited
+ * JSON response into an object of the given type. Blank lines, commonly used
+ * as keep-alives, are skipped.
+ *
+ * <p>
+ * Lines are parsed directly from the reused line buffer, without being turned
+ * into a {@code String} first.
+ *
+ * @param <T> The type of the decoded objects.
+ * @author William Beaudin
+ */
+final class NdjsonDecoder<T> implements StreamDecoder<T> {
+
+    /**
+     * The reader bound to the type of the decoded objects.
+     */
+    private final ObjectReader reader;
+
+    /**
+     * Constructs a new {@code NdjsonDecoder}.
+     *
+     * @param reader The reader bound to the type of the decoded objects.
+     */
+    NdjsonDecoder(ObjectReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public void decode(byte[] line, int length, Consumer<? super T> sink) throws JsonParsingException {
+        if (isBlank(line, length)) {
+            return;
+        }
+        T value;
+        try {
+            value = reader.readValue(line, 0, length);
+        } catch (IOException e) {
+            throw new JsonParsingException("Error parsing NDJSON line", e);
+        }
+        sink.accept(value);
+    }
+
+    @Override
+    public void reset() {
+        // Every line is self-contained, nothing is carried over.
+    }
+
+    @Override
+    public String lastEventId() {
+        return null;
+    }
+
+    @Override
+    public long retry() {
+        return -1;
+    }
+
+    @Override
+    public boolean endless() {
+        // Without event IDs, reopening would replay the whole stream.
+        return false;
+    }
+
+    /**
+     * Checks whether the line only contains whitespace.
+     *
+     * @param line   The buffer holding the line.
+     * @param length The length of the line.
+     * @return {@code true} if the line is blank.
+     */
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,16 +1,23 @@
 package qc.netconex.request;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
 import java.net.HttpURLConnection;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import qc.netconex.ApiResponse;
 import qc.netconex.NetConex;
 import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.HttpStatusCodeException;
+import qc.netconex.journal.RequestJournal;
 
 /**
  * The {@code Post} class provides functionality for executing POST requests.
@@ -30,9 +37,7 @@ public class Post extends NetConex {
      * @param requester The {@code HttpRequester} instance.
      */
     public Post(NetConex requester) {
-        super(requester.getBaseUrl());
-        this.objectMapper = super.getObjectMapper();
-        this.getHeaders().putAll(requester.getHeaders());
+        super(requester);
     }
 
     /**
@@ -45,38 +50,225 @@ public class Post extends NetConex {
      */
     @Override
     public String execute(String endpoint, Object requestBody) throws ApiRequestException {
+        return send(endpoint, false, generator -> objectMapper.writeValue(generator, requestBody));
+    }
+
+    /**
+     * Uploads the specified file with a POST request, as an
+     * {@code application/octet-stream} body.
+     * 
+     * @param endpoint The endpoint for the POST request.
+     * @param file     The file to send.
+     * @return The response from the POST request.
+     * @throws ApiRequestException If there is an error executing the request or
+     *                             reading the file.
+     */
+    public String upload(String endpoint, Path file) throws ApiRequestException {
+        return upload(endpoint, file, "application/octet-stream", null);
+    }
+
+    /**
+     * Uploads the specified file as the body of a POST request. The
+     * file is read through memory-mapped windows and streamed with a fixed
+     * content length, so it never has to fit in memory.
+     * 
+     * @param endpoint    The endpoint for the POST request.
+     * @param file        The file to send.
+     * @param contentType The media type of the file.
+     * @param listener    The listener receiving progress updates, or
+     *                    {@code null}.
+     * @return The response from the POST request.
+     * @throws ApiRequestException If there is an error executing the request or
+     *                             reading the file.
+     */
+    public String upload(String endpoint, Path file, String contentType, TransferProgressListener listener)
+            throws ApiRequestException {
         try {
-            HttpURLConnection connection = createConnection(endpoint, "POST");
-            connection.setDoOutput(true);
-            connection.setRequestProperty("Content-Type", "application/json");
+            return exchange(endpoint, "POST", ExchangeKind.TRANSFER, connection -> {
+                return FileTransfer.upload(connection, file, contentType, listener);
+            });
+        } catch (ApiRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiRequestException("Error executing POST request", e);
+        }
+    }
 
-            String jsonInputString = objectMapper.writeValueAsString(requestBody);
+    /**
+     * Executes a POST request whose body is built from the given array and class
+     * type. The row is written straight to the request without building an
+     * intermediate map.
+     * 
+     * @param endpoint  The endpoint for the POST request.
+     * @param array     The array containing values for the request body fields.
+     * @param classType The class type representing the request body.
+     * @return The response from the POST request.
+     * @throws ApiRequestException If there is an error executing the request.
+     * @see #buildRequestBodyFromArray(String[], Class)
+     */
+    public String executeFromArray(String endpoint, String[] array, Class<?> classType) throws ApiRequestException {
+        RequestBodySchema schema = RequestBodySchema.of(classType);
+        return send(endpoint, false, generator -> schema.writeRow(generator, array));
+    }
+
+    /**
+     * Executes a single POST request whose body is a JSON array holding one
+     * object per row.
+     * 
+     * @param endpoint  The endpoint for the POST request.
+     * @param rows      The rows containing values for the request body fields.
+     * @param classType The class type representing each element of the body.
+     * @return The response from the POST request.
+     * @throws ApiRequestException If there is an error executing the request.
+     * @see #executeBulk(String, Iterator, Class)
+     */
+    public String executeBulk(String endpoint, String[][] rows, Class<?> classType) throws ApiRequestException {
+        return executeBulk(endpoint, Arrays.asList(rows).iterator(), classType);
+    }
 
-            try (OutputStream os = connection.getOutputStream()) {
-                byte[] input = jsonInputString.getBytes("utf-8");
-                os.write(input, 0, input.length);
+    /**
+     * Executes a single POST request whose body is a JSON array holding one
+     * object per row.
+     * 
+     * <p>
+     * Rows are pulled from the iterator while the body is being sent, and the
+     * body is streamed in chunks, so the whole import never needs to fit in
+     * memory.
+     * 
+     * @param endpoint  The endpoint for the POST request.
+     * @param rows      The rows containing values for the request body fields.
+     * @param classType The class type representing each element of the body.
+     * @return The response from the POST request.
+     * @throws ApiRequestException If there is an error executing the request.
+     */
+    public String executeBulk(String endpoint, Iterator<String[]> rows, Class<?> classType)
+            throws ApiRequestException {
+        RequestBodySchema schema = RequestBodySchema.of(classType);
+        return send(endpoint, true, generator -> {
+            generator.writeStartArray();
+            while (rows.hasNext()) {
+                schema.writeRow(generator, rows.next());
             }
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Queues a POST request in the journal set on this instance, to be
+     * delivered in the background. The method returns as soon as the request
+     * is stored on disk, even if the server is slow or unavailable.
+     * 
+     * @param endpoint    The endpoint for the POST request.
+     * @param requestBody The request body object.
+     * @return The idempotency key the request will be sent with.
+     * @throws ApiRequestException If no journal is set, or the request cannot
+     *                             be stored.
+     * @see qc.netconex.journal.RequestJournal
+     */
+    public String enqueue(String endpoint, Object requestBody) throws ApiRequestException {
+        RequestJournal journal = getJournal();
+        if (journal == null) {
+            throw new ApiRequestException("No request journal is set to queue the POST request in");
+        }
+        return journal.enqueue("POST", endpoint, requestBody);
+    }
 
-            int responseCode = connection.getResponseCode();
+    /**
+     * Executes a POST request with the specified endpoint and request body,
+     * returning the response without reading its body.
+     * 
+     * @param endpoint    The endpoint for the POST request.
+     * @param requestBody The request body object.
+     * @return The response, to be closed once done with.
+     * @throws ApiRequestException If there is an error executing the request,
+     *                             or a {@link HttpStatusCodeException} if the
+     *                             server answers with an error response.
+     */
+    public ApiResponse executeForResponse(String endpoint, Object requestBody) throws ApiRequestException {
+        try {
+            return exchange(endpoint, "POST", connection -> {
+                writeBody(connection, false, generator -> objectMapper.writeValue(generator, requestBody));
+                return toResponse(connection, "POST");
+            });
+        } catch (ApiRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiRequestException("Error executing POST request", e);
+        }
+    }
 
-            if (responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_CREATED) {
-                try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                    StringBuilder response = new StringBuilder();
-                    String inputLine;
-                    while ((inputLine = in.readLine()) != null) {
-                        response.append(inputLine);
+    /**
+     * Sends a POST request whose JSON body is written by the given writer.
+     * 
+     * @param endpoint The endpoint for the POST request.
+     * @param chunked  Whether the body should be streamed in chunks instead of
+     *                 being buffered to compute its length.
+     * @param body     The writer producing the request body.
+     * @return The response from the POST request.
+     * @throws ApiRequestException If there is an error executing the request.
+     */
+    private String send(String endpoint, boolean chunked, BodyWriter body) throws ApiRequestException {
+        try {
+            // A chunked body is a bulk one, of any size.
+            ExchangeKind kind = chunked ? ExchangeKind.TRANSFER : ExchangeKind.REQUEST;
+            return exchange(endpoint, "POST", kind, connection -> {
+                writeBody(connection, chunked, body);
+
+                int responseCode = connection.getResponseCode();
+
+                if (responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_CREATED) {
+                    try (BufferedReader in = new BufferedReader(
+                            new InputStreamReader(connection.getInputStream()))) {
+                        StringBuilder response = new StringBuilder();
+                        String inputLine;
+                        while ((inputLine = in.readLine()) != null) {
+                            response.append(inputLine);
+                        }
+                        return response.toString();
                     }
-                    return response.toString();
+                } else {
+                    throw HttpStatusCodeException.fromConnection(connection,
+                            "POST request failed with response code: " + responseCode);
                 }
-            } else {
-                connection.disconnect();
-                throw new ApiRequestException("POST request failed with response code: " + responseCode);
-            }
+            });
+        } catch (ApiRequestException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiRequestException("Error executing POST request", e);
         }
     }
 
+    /**
+     * Writes a JSON request body to a connection.
+     * 
+     * @param connection The connection, not connected yet.
+     * @param chunked    Whether the body should be streamed in chunks instead of
+     *                   being buffered to compute its length.
+     * @param body       The writer producing the request body.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    private void writeBody(HttpURLConnection connection, boolean chunked, BodyWriter body) throws IOException {
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        if (chunked) {
+            connection.setChunkedStreamingMode(0);
+        }
+
+        OutputStream os = connection.getOutputStream();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(os, JsonEncoding.UTF8);
+        // A body that failed halfway must not be completed into valid JSON.
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        try {
+            body.writeTo(generator);
+        } catch (IOException | RuntimeException e) {
+            // Dropping the connection before closing the stream aborts the body,
+            // so the server never receives the final chunk of a truncated one.
+            connection.disconnect();
+            throw e;
+        }
+        generator.close();
+    }
+
     /**
      * Builds a request body from the given array and class type.
      * 
@@ -86,15 +278,20 @@ public class Post extends NetConex {
      * @throws Exception If there is an error building the request body.
      */
     public Map<String, Object> buildRequestBodyFromArray(String[] array, Class<?> classType) throws Exception {
-        Map<String, Object> requestBody = new HashMap<>();
-
-        String[] fieldName = Arrays.stream(classType.getDeclaredFields())
-                .map(Field::getName).toArray(String[]::new);
-
-        for (int i = 0; i < array.length && i < fieldName.length; i++) {
-            requestBody.put(fieldName[i], array[i]);
-        }
+        return RequestBodySchema.of(classType).toMap(array);
+    }
 
-        return requestBody;
+    /**
+     * Writes a request body to a JSON generator.
+     */
+    @FunctionalInterface
+    private interface BodyWriter {
+        /**
+         * Writes the request body.
+         * 
+         * @param generator The generator bound to the request output stream.
+         * @throws IOException If an I/O error occurs while writing.
+         */
+        void writeTo(JsonGenerator generator) throws IOException;
     }
 }
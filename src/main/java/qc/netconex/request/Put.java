@@ -4,9 +4,13 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.nio.file.Path;
 
+import qc.netconex.ApiResponse;
 import qc.netconex.NetConex;
 import qc.netconex.error.ApiRequestException;
+import qc.netconex.error.HttpStatusCodeException;
+import qc.netconex.journal.RequestJournal;
 
 /**
  * The {@code Put} class provides functionality for executing PUT requests.
@@ -26,9 +30,7 @@ public class Put extends NetConex {
      * @param requester The {@code HttpRequester} instance.
      */
     public Put(NetConex requester) {
-        super(requester.getBaseUrl());
-        this.objectMapper = requester.getObjectMapper();
-        this.getHeaders().putAll(requester.getHeaders());
+        super(requester);
     }
 
     /**
@@ -42,32 +44,125 @@ public class Put extends NetConex {
     @Override
     public String execute(String endpoint, Object requestBody) throws ApiRequestException {
         try {
-            HttpURLConnection connection = createConnection(endpoint, "PUT");
-            connection.setDoOutput(true);
-            connection.setRequestProperty("Content-Type", "application/json");
+            return exchange(endpoint, "PUT", connection -> {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
 
-            String jsonInputString = objectMapper.writeValueAsString(requestBody);
+                String jsonInputString = objectMapper.writeValueAsString(requestBody);
 
-            try (OutputStream os = connection.getOutputStream()) {
-                byte[] input = jsonInputString.getBytes("utf-8");
-                os.write(input, 0, input.length);
-            }
+                try (OutputStream os = connection.getOutputStream()) {
+                    byte[] input = jsonInputString.getBytes("utf-8");
+                    os.write(input, 0, input.length);
+                }
 
-            int responseCode = connection.getResponseCode();
+                int responseCode = connection.getResponseCode();
 
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                    StringBuilder response = new StringBuilder();
-                    String inputLine;
-                    while ((inputLine = in.readLine()) != null) {
-                        response.append(inputLine);
+                if (responseCode == HttpURLConnection.HTTP_OK) {
+                    try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+                        StringBuilder response = new StringBuilder();
+                        String inputLine;
+                        while ((inputLine = in.readLine()) != null) {
+                            response.append(inputLine);
+                        }
+                        return response.toString();
                     }
-                    return response.toString();
+                } else {
+                    throw HttpStatusCodeException.fromConnection(connection,
+                            "PUT request failed with response code: " + responseCode);
+                }
+            });
+        } catch (ApiRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiRequestException("Error executing PUT request", e);
+        }
+    }
+
+    /**
+     * Queues a PUT request in the journal set on this instance, to be
+     * delivered in the background. The method returns as soon as the request
+     * is stored on disk, even if the server is slow or unavailable.
+     * 
+     * @param endpoint    The endpoint for the PUT request.
+     * @param requestBody The request body object.
+     * @return The idempotency key the request will be sent with.
+     * @throws ApiRequestException If no journal is set, or the request cannot
+     *                             be stored.
+     * @see qc.netconex.journal.RequestJournal
+     */
+    public String enqueue(String endpoint, Object requestBody) throws ApiRequestException {
+        RequestJournal journal = getJournal();
+        if (journal == null) {
+            throw new ApiRequestException("No request journal is set to queue the PUT request in");
+        }
+        return journal.enqueue("PUT", endpoint, requestBody);
+    }
+
+    /**
+     * Executes a PUT request with the specified endpoint and request body,
+     * returning the response without reading its body.
+     * 
+     * @param endpoint    The endpoint for the PUT request.
+     * @param requestBody The request body object.
+     * @return The response, to be closed once done with.
+     * @throws ApiRequestException If there is an error executing the request,
+     *                             or a {@link HttpStatusCodeException} if the
+     *                             server answers with an error response.
+     */
+    public ApiResponse executeForResponse(String endpoint, Object requestBody) throws ApiRequestException {
+        try {
+            return exchange(endpoint, "PUT", connection -> {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+
+                try (OutputStream os = connection.getOutputStream()) {
+                    objectMapper.writeValue(os, requestBody);
                 }
-            } else {
-                connection.disconnect();
-                throw new ApiRequestException("PUT request failed with response code: " + responseCode);
-            }
+
+                return toResponse(connection, "PUT");
+            });
+        } catch (ApiRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiRequestException("Error executing PUT request", e);
+        }
+    }
+
+    /**
+     * Uploads the specified file with a PUT request, as an
+     * {@code application/octet-stream} body.
+     * 
+     * @param endpoint The endpoint for the PUT request.
+     * @param file     The file to send.
+     * @return The response from the PUT request.
+     * @throws ApiRequestException If there is an error executing the request or
+     *                             reading the file.
+     */
+    public String upload(String endpoint, Path file) throws ApiRequestException {
+        return upload(endpoint, file, "application/octet-stream", null);
+    }
+
+    /**
+     * Uploads the specified file as the body of a PUT request. The
+     * file is read through memory-mapped windows and streamed with a fixed
+     * content length, so it never has to fit in memory.
+     * 
+     * @param endpoint    The endpoint for the PUT request.
+     * @param file        The file to send.
+     * @param contentType The media type of the file.
+     * @param listener    The listener receiving progress updates, or
+     *                    {@code null}.
+     * @return The response from the PUT request.
+     * @throws ApiRequestException If there is an error executing the request or
+     *                             reading the file.
+     */
+    public String upload(String endpoint, Path file, String contentType, TransferProgressListener listener)
+            throws ApiRequestException {
+        try {
+            return exchange(endpoint, "PUT", ExchangeKind.TRANSFER,
+                    connection -> FileTransfer.upload(connection, file, contentType, listener));
+        } catch (ApiRequestException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiRequestException("Error executing PUT request", e);
         }
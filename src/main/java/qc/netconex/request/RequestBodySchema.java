@@ -0,0 +1,100 @@
+package qc.netconex.request;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * The {@code RequestBodySchema} class holds the field layout of a request body
+ * class, resolved once per class and reused for every row built from it.
+ *
+ * <p>
+ * Field names are kept pre-encoded so rows can be written straight to a
+ * {@link JsonGenerator} without going through an intermediate {@code Map} or
+ * reflecting on the class again.
+ *
+ * @author William Beaudin
+ */
+final class RequestBodySchema {
+
+    /**
+     * The schemas already compiled, one per class.
+     */
+    private static final ClassValue<RequestBodySchema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected RequestBodySchema computeValue(Class<?> type) {
+            return new RequestBodySchema(type);
+        }
+    };
+
+    /**
+     * The field names, in declaration order.
+     */
+    private final String[] fieldNames;
+
+    /**
+     * The field names, pre-encoded for the JSON generator.
+     */
+    private final SerializedString[] encodedFieldNames;
+
+    /**
+     * Constructs a new schema from the declared fields of the given class.
+     *
+     * @param classType The class type representing the request body.
+     */
+    private RequestBodySchema(Class<?> classType) {
+        Field[] fields = classType.getDeclaredFields();
+        this.fieldNames = new String[fields.length];
+        this.encodedFieldNames = new SerializedString[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            fieldNames[i] = fields[i].getName();
+            encodedFieldNames[i] = new SerializedString(fieldNames[i]);
+        }
+    }
+
+    /**
+     * Returns the schema of the given class, compiling it on first use.
+     *
+     * @param classType The class type representing the request body.
+     * @return The cached schema for the class.
+     */
+    static RequestBodySchema of(Class<?> classType) {
+        return SCHEMAS.get(classType);
+    }
+
+    /**
+     * Maps the values of the given row to the fields of the schema.
+     *
+     * @param row The values for the request body fields.
+     * @return A map representing the request body.
+     */
+    Map<String, Object> toMap(String[] row) {
+        int size = Math.min(row.length, fieldNames.length);
+        Map<String, Object> requestBody = HashMap.newHashMap(size);
+        for (int i = 0; i < size; i++) {
+            requestBody.put(fieldNames[i], row[i]);
+        }
+        return requestBody;
+    }
+
+    /**
+     * Writes the given row as a JSON object to the generator.
+     *
+     * @param generator The generator to write to.
+     * @param row       The values for the request body fields.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void writeRow(JsonGenerator generator, String[] row) throws IOException {
+        int size = Math.min(row.length, encodedFieldNames.length);
+        generator.writeStartObject();
+        for (int i = 0; i < size; i++) {
+            generator.writeFieldName(encodedFieldNames[i]);
+            generator.writeString(row[i]);
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,93 @@
+package qc.netconex.request;
+
+/**
+ * The {@code ServerSentEvent} class represents a single event received from a
+ * {@code text/event-stream} response.
+ *
+ * @author William Beaudin
+ */
+public final class ServerSentEvent {
+
+    /**
+     * The event type used when the server does not specify one.
+     */
+    public static final String DEFAULT_EVENT = "message";
+
+    /**
+     * The last event ID known when the event was dispatched, or {@code null}.
+     */
+    private final String id;
+
+    /**
+     * The event type.
+     */
+    private final String event;
+
+    /**
+     * The event data, with the lines joined by {@code '\n'}.
+     */
+    private final String data;
+
+    /**
+     * The reconnection time requested by the server in milliseconds, or
+     * {@code -1}.
+     */
+    private final long retry;
+
+    /**
+     * Constructs a new {@code ServerSentEvent}.
+     *
+     * @param id    The last event ID, or {@code null}.
+     * @param event The event type.
+     * @param data  The event data.
+     * @param retry The reconnection time in milliseconds, or {@code -1}.
+     */
+    ServerSentEvent(String id, String event, String data, long retry) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+        this.retry = retry;
+    }
+
+    /**
+     * Returns the last event ID known when the event was dispatched.
+     *
+     * @return The event ID, or {@code null} if the server never sent one.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the event type.
+     *
+     * @return The event type, {@value #DEFAULT_EVENT} by default.
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the event data.
+     *
+     * @return The event data, with the lines joined by {@code '\n'}.
+     */
+    public String getData() {
+        return data;
+    }
+
+    /**
+     * Returns the reconnection time last requested by the server.
+     *
+     * @return The reconnection time in milliseconds, or {@code -1} if the server
+     *         never sent one.
+     */
+    public long getRetry() {
+        return retry;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSentEvent[id=" + id + ", event=" + event + ", data=" + data + "]";
+    }
+}
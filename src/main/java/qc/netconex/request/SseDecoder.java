@@ -0,0 +1,205 @@
+package qc.netconex.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code SseDecoder} class decodes the lines of a
+ * {@code text/event-stream} response into {@link ServerSentEvent}s, following
+ * the event stream interpretation rules of the HTML specification.
+ *
+ * <p>
+ * The data of the event being built is accumulated in a reused byte buffer,
+ * so the only allocations per event are its strings.
+ *
+ * @author William Beaudin
+ */
+final class SseDecoder implements StreamDecoder<ServerSentEvent> {
+
+    /**
+     * The data lines of the event being built, each followed by {@code '\n'}.
+     */
+    private byte[] data = new byte[1024];
+
+    /**
+     * The length of the data of the event being built.
+     */
+    private int dataLength;
+
+    /**
+     * Whether the event being built has a data field, even an empty one.
+     */
+    private boolean hasData;
+
+    /**
+     * The type of the event being built, or {@code null}.
+     */
+    private String event;
+
+    /**
+     * The last event ID received.
+     */
+    private String lastEventId;
+
+    /**
+     * The reconnection time last requested by the server, or {@code -1}.
+     */
+    private long retry = -1;
+
+    /**
+     * Constructs a new {@code SseDecoder}.
+     *
+     * @param lastEventId The event ID to resume from, or {@code null}.
+     */
+    SseDecoder(String lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    @Override
+    public void decode(byte[] line, int length, Consumer<? super ServerSentEvent> sink) {
+        if (length == 0) {
+            dispatch(sink);
+            return;
+        }
+        if (line[0] == ':') {
+            return;
+        }
+
+        int colon = indexOf(line, length, (byte) ':');
+        int nameLength = colon < 0 ? length : colon;
+        int valueStart = colon < 0 ? length : colon + 1;
+        if (valueStart < length && line[valueStart] == ' ') {
+            valueStart++;
+        }
+        int valueLength = length - valueStart;
+
+        if (is(line, nameLength, "data")) {
+            appendData(line, valueStart, valueLength);
+        } else if (is(line, nameLength, "event")) {
+            event = new String(line, valueStart, valueLength, StandardCharsets.UTF_8);
+        } else if (is(line, nameLength, "id")) {
+            if (indexOf(line, length, (byte) 0) < 0) {
+                lastEventId = new String(line, valueStart, valueLength, StandardCharsets.UTF_8);
+            }
+        } else if (is(line, nameLength, "retry")) {
+            parseRetry(line, valueStart, valueLength);
+        }
+    }
+
+    @Override
+    public void reset() {
+        dataLength = 0;
+        hasData = false;
+        event = null;
+    }
+
+    @Override
+    public String lastEventId() {
+        return lastEventId;
+    }
+
+    @Override
+    public long retry() {
+        return retry;
+    }
+
+    @Override
+    public boolean endless() {
+        return true;
+    }
+
+    /**
+     * Dispatches the event being built, if it has any data, and starts a new
+     * one.
+     *
+     * @param sink The consumer receiving the event.
+     */
+    private void dispatch(Consumer<? super ServerSentEvent> sink) {
+        if (hasData) {
+            String eventData = new String(data, 0, dataLength - 1, StandardCharsets.UTF_8);
+            String eventType = event == null || event.isEmpty() ? ServerSentEvent.DEFAULT_EVENT : event;
+            reset();
+            sink.accept(new ServerSentEvent(lastEventId, eventType, eventData, retry));
+        } else {
+            reset();
+        }
+    }
+
+    /**
+     * Appends a data line to the event being built.
+     *
+     * @param line   The buffer holding the line.
+     * @param start  The position of the value in the line.
+     * @param length The length of the value.
+     */
+    private void appendData(byte[] line, int start, int length) {
+        if (dataLength + length + 1 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length + 1));
+        }
+        System.arraycopy(line, start, data, dataLength, length);
+        dataLength += length;
+        data[dataLength++] = '\n';
+        hasData = true;
+    }
+
+    /**
+     * Parses the value of a {@code retry} field, ignoring it unless it only
+     * contains ASCII digits.
+     *
+     * @param line   The buffer holding the line.
+     * @param start  The position of the value in the line.
+     * @param length The length of the value.
+     */
+    private void parseRetry(byte[] line, int start, int length) {
+        if (length == 0 || length > 18) {
+            return;
+        }
+        long value = 0;
+        for (int i = start; i < start + length; i++) {
+            if (line[i] < '0' || line[i] > '9') {
+                return;
+            }
+            value = value * 10 + (line[i] - '0');
+        }
+        retry = value;
+    }
+
+    /**
+     * Checks whether the field name at the start of the line equals the given
+     * ASCII name.
+     *
+     * @param line   The buffer holding the line.
+     * @param length The length of the field name.
+     * @param name   The name to compare to.
+     * @return {@code true} if the names are equal.
+     */
+    private static boolean is(byte[] line, int length, String name) {
+        if (length != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line[i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the position of the first occurrence of a byte in the line.
+     *
+     * @param line   The buffer holding the line.
+     * @param length The length of the line.
+     * @param value  The byte to look for.
+     * @return The position of the byte, or {@code -1} if absent.
+     */
+    private static int indexOf(byte[] line, int length, byte value) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,54 @@
+package qc.netconex.request;
+
+import java.util.function.Consumer;
+
+import qc.netconex.error.JsonParsingException;
+
+/**
+ * The {@code StreamDecoder} interface turns the lines of a streaming response
+ * into items delivered to an {@link EventStream}.
+ *
+ * @param <T> The type of the decoded items.
+ * @author William Beaudin
+ */
+interface StreamDecoder<T> {
+
+    /**
+     * Decodes a line, passing any item it completes to the sink.
+     *
+     * @param line   The buffer holding the line.
+     * @param length The length of the line.
+     * @param sink   The consumer receiving the decoded items.
+     * @throws JsonParsingException If the line cannot be decoded.
+     */
+    void decode(byte[] line, int length, Consumer<? super T> sink) throws JsonParsingException;
+
+    /**
+     * Discards any partially decoded item, called when the connection is lost.
+     */
+    void reset();
+
+    /**
+     * Returns the ID to resume from when reconnecting.
+     *
+     * @return The last event ID, or {@code null}.
+     */
+    String lastEventId();
+
+    /**
+     * Returns the reconnection delay requested by the server.
+     *
+     * @return The delay in milliseconds, or {@code -1} if none was requested.
+     */
+    long retry();
+
+    /**
+     * Returns whether the stream is endless, so that its end means the
+     * connection was lost rather than that every item was received. Such a
+     * stream is also resumed where it stopped when reopened, and therefore
+     * reconnects by default.
+     *
+     * @return {@code true} if the stream should be reopened once it ends.
+     */
+    boolean endless();
+}
@@ -0,0 +1,153 @@
+package qc.netconex.request;
+
+/**
+ * The {@code StreamOptions} class holds the settings of a streaming
+ * subscription opened with {@link Get#subscribe} or
+ * {@link Get#subscribeNdjson}.
+ *
+ * @author William Beaudin
+ */
+public class StreamOptions {
+
+    /**
+     * Whether the stream reconnects when the connection is lost, or
+     * {@code null} to reconnect only if the stream can be resumed.
+     */
+    private Boolean reconnect;
+
+    /**
+     * The delay before reconnecting in milliseconds, unless the server asks for
+     * another one.
+     */
+    private long reconnectDelay = 3000;
+
+    /**
+     * The maximum number of consecutive reconnection attempts.
+     */
+    private int maxReconnectAttempts = Integer.MAX_VALUE;
+
+    /**
+     * The time in milliseconds without receiving any byte after which the
+     * connection is considered dead, {@code 0} to wait forever.
+     */
+    private int heartbeatTimeout = 60000;
+
+    /**
+     * The event ID to resume from on the first connection, or {@code null}.
+     */
+    private String lastEventId;
+
+    /**
+     * Returns whether a Server-Sent Events stream reconnects when the
+     * connection is lost. An NDJSON stream only does if reconnection was
+     * enabled with {@link #setReconnect}.
+     *
+     * @return {@code true} if the stream reconnects.
+     */
+    public boolean isReconnect() {
+        return reconnect == null || reconnect;
+    }
+
+    /**
+     * Sets whether the stream reconnects when the connection is lost. A
+     * Server-Sent Events stream, which resumes from its last event ID,
+     * reconnects by default, and is also reopened when the server ends the
+     * response. An NDJSON stream has no position to resume from: when enabled,
+     * it is sent again from the start and every item already received is
+     * delivered a second time, so by default it fails instead. It completes
+     * when the server ends the response either way.
+     *
+     * @param reconnect {@code true} to reconnect.
+     */
+    public void setReconnect(boolean reconnect) {
+        this.reconnect = reconnect;
+    }
+
+    /**
+     * Returns whether a stream reconnects when the connection is lost.
+     *
+     * @param resumable Whether the stream resumes where it stopped when
+     *                  reopened.
+     * @return {@code true} if the stream reconnects.
+     */
+    boolean isReconnect(boolean resumable) {
+        return reconnect != null ? reconnect : resumable;
+    }
+
+    /**
+     * Returns the delay before reconnecting.
+     *
+     * @return The delay in milliseconds.
+     */
+    public long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    /**
+     * Sets the delay before reconnecting. A {@code retry} field sent by the
+     * server takes precedence over it.
+     *
+     * @param reconnectDelay The delay in milliseconds.
+     */
+    public void setReconnectDelay(long reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Returns the maximum number of consecutive reconnection attempts.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxReconnectAttempts() {
+        return maxReconnectAttempts;
+    }
+
+    /**
+     * Sets the maximum number of consecutive reconnection attempts. The count is
+     * reset every time a connection succeeds.
+     *
+     * @param maxReconnectAttempts The maximum number of attempts.
+     */
+    public void setMaxReconnectAttempts(int maxReconnectAttempts) {
+        this.maxReconnectAttempts = maxReconnectAttempts;
+    }
+
+    /**
+     * Returns the heartbeat timeout.
+     *
+     * @return The timeout in milliseconds, {@code 0} if disabled.
+     */
+    public int getHeartbeatTimeout() {
+        return heartbeatTimeout;
+    }
+
+    /**
+     * Sets the time without receiving any byte, comments included, after which
+     * the connection is dropped and reopened.
+     *
+     * @param heartbeatTimeout The timeout in milliseconds, {@code 0} to wait
+     *                         forever.
+     */
+    public void setHeartbeatTimeout(int heartbeatTimeout) {
+        this.heartbeatTimeout = heartbeatTimeout;
+    }
+
+    /**
+     * Returns the event ID to resume from on the first connection.
+     *
+     * @return The event ID, or {@code null}.
+     */
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * Sets the event ID to resume from on the first connection, sent as the
+     * {@code Last-Event-ID} header.
+     *
+     * @param lastEventId The event ID, or {@code null}.
+     */
+    public void setLastEventId(String lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+}
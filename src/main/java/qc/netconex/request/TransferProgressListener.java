@@ -0,0 +1,21 @@
+package qc.netconex.request;
+
+/**
+ * The {@code TransferProgressListener} interface receives progress updates
+ * while a file is uploaded or downloaded.
+ *
+ * @author William Beaudin
+ */
+@FunctionalInterface
+public interface TransferProgressListener {
+
+    /**
+     * Called every time a chunk of the file has been transferred. During a
+     * parallel download, it may be called from several threads at once.
+     *
+     * @param transferred The number of bytes of the file transferred so far.
+     * @param total       The size of the file in bytes, or {@code -1} if
+     *                    unknown.
+     */
+    void onProgress(long transferred, long total);
+}
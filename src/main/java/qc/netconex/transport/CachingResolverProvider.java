@@ -0,0 +1,46 @@
+package qc.netconex.transport;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.net.spi.InetAddressResolver;
+import java.net.spi.InetAddressResolverProvider;
+import java.util.stream.Stream;
+
+/**
+ * The {@code CachingResolverProvider} class plugs the {@link DnsCache} into the
+ * host name resolution of the JDK. It is loaded by the JDK itself and should
+ * not be used directly.
+ *
+ * @author William Beaudin
+ */
+public final class CachingResolverProvider extends InetAddressResolverProvider {
+
+    /**
+     * Constructs a new {@code CachingResolverProvider}, called by the JDK.
+     */
+    public CachingResolverProvider() {
+    }
+
+    @Override
+    public InetAddressResolver get(Configuration configuration) {
+        InetAddressResolver builtin = configuration.builtinResolver();
+        DnsCache.install(builtin);
+        return new InetAddressResolver() {
+            @Override
+            public Stream<InetAddress> lookupByName(String host, LookupPolicy lookupPolicy)
+                    throws UnknownHostException {
+                return DnsCache.lookup(host, lookupPolicy).stream();
+            }
+
+            @Override
+            public String lookupByAddress(byte[] addr) throws UnknownHostException {
+                return builtin.lookupByAddress(addr);
+            }
+        };
+    }
+
+    @Override
+    public String name() {
+        return "NetConex DNS cache";
+    }
+}
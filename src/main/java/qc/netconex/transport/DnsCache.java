@@ -0,0 +1,272 @@
+package qc.netconex.transport;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.net.spi.InetAddressResolver;
+import java.net.spi.InetAddressResolver.LookupPolicy;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code DnsCache} class caches host name lookups made by the HTTP
+ * connections of the JVM, with a configurable time-to-live and background
+ * refresh.
+ *
+ * <p>
+ * Lookups go through {@link CachingResolverProvider}, which the JDK loads as
+ * its resolver when NetConex is on the class path or module path. Until the
+ * cache is enabled, every lookup is passed straight to the built-in resolver.
+ * Once enabled, a lookup made during the last part of the time-to-live of an
+ * entry returns the cached addresses and refreshes them in the background, so
+ * hosts in constant use are never resolved on the request path again.
+ *
+ * <p>
+ * The JVM keeps its own cache of successful lookups above this one, for 30
+ * seconds by default ({@code networkaddress.cache.ttl}).
+ *
+ * @author William Beaudin
+ */
+public final class DnsCache {
+
+    /**
+     * The part of the time-to-live after which a lookup triggers a refresh.
+     */
+    private static final double REFRESH_AHEAD = 0.8;
+
+    /**
+     * The cached entries, by host name and lookup policy.
+     */
+    private static final ConcurrentHashMap<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    /**
+     * The time-to-live of the entries in nanoseconds, {@code 0} when disabled.
+     */
+    private static volatile long ttl;
+
+    /**
+     * Whether entries are refreshed in the background before they expire.
+     */
+    private static volatile boolean backgroundRefresh = true;
+
+    /**
+     * The resolver of the JDK, set once the provider is loaded.
+     */
+    private static volatile InetAddressResolver builtinResolver;
+
+    /**
+     * This class only has static methods.
+     */
+    private DnsCache() {
+    }
+
+    /**
+     * Enables the cache with the given time-to-live.
+     *
+     * @param ttlMillis The time-to-live of the entries in milliseconds.
+     */
+    public static void enable(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Time-to-live must be positive: " + ttlMillis);
+        }
+        ttl = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Disables the cache and drops its entries.
+     */
+    public static void disable() {
+        ttl = 0;
+        ENTRIES.clear();
+    }
+
+    /**
+     * Returns whether the cache is enabled.
+     *
+     * @return {@code true} if lookups are cached.
+     */
+    public static boolean isEnabled() {
+        return ttl > 0;
+    }
+
+    /**
+     * Returns whether the resolver of the cache was installed by the JDK. It is
+     * not when another resolver provider was found first.
+     *
+     * @return {@code true} if lookups go through the cache.
+     */
+    public static boolean isInstalled() {
+        return builtinResolver != null;
+    }
+
+    /**
+     * Sets whether entries are refreshed in the background before they expire.
+     * Without it, the lookup following the expiry of an entry waits for the
+     * resolution.
+     *
+     * @param backgroundRefresh {@code true} to refresh in the background.
+     */
+    public static void setBackgroundRefresh(boolean backgroundRefresh) {
+        DnsCache.backgroundRefresh = backgroundRefresh;
+    }
+
+    /**
+     * Drops every cached entry.
+     */
+    public static void invalidate() {
+        ENTRIES.clear();
+    }
+
+    /**
+     * Resolves the given host ahead of time, so the first request to it does
+     * not wait for the lookup.
+     *
+     * @param host The host name.
+     * @return The addresses of the host.
+     * @throws UnknownHostException If the host cannot be resolved.
+     */
+    public static InetAddress[] prefetch(String host) throws UnknownHostException {
+        return InetAddress.getAllByName(host);
+    }
+
+    /**
+     * Registers the resolver of the JDK the cache delegates to.
+     *
+     * @param resolver The built-in resolver.
+     */
+    static void install(InetAddressResolver resolver) {
+        builtinResolver = resolver;
+    }
+
+    /**
+     * Looks up the addresses of a host, from the cache when possible.
+     *
+     * @param host   The host name.
+     * @param policy The lookup policy.
+     * @return The addresses of the host.
+     * @throws UnknownHostException If the host cannot be resolved.
+     */
+    static List<InetAddress> lookup(String host, LookupPolicy policy) throws UnknownHostException {
+        long timeToLive = ttl;
+        if (timeToLive <= 0) {
+            return builtinResolver.lookupByName(host, policy).toList();
+        }
+
+        Key key = new Key(host, policy.characteristics());
+        long now = System.nanoTime();
+        Entry entry = ENTRIES.get(key);
+        if (entry != null && now - entry.expiresAt < 0) {
+            if (backgroundRefresh && now - entry.refreshAt >= 0 && entry.claimRefresh()) {
+                Thread.ofVirtual().name("netconex-dns-refresh").start(() -> refresh(key, policy, timeToLive));
+            }
+            return entry.addresses;
+        }
+        return resolve(key, policy, timeToLive, now);
+    }
+
+    /**
+     * Refreshes an entry in the background. On failure, the current entry is
+     * kept until it expires.
+     *
+     * @param key        The key of the entry.
+     * @param policy     The lookup policy.
+     * @param timeToLive The time-to-live of the entry in nanoseconds.
+     */
+    private static void refresh(Key key, LookupPolicy policy, long timeToLive) {
+        try {
+            resolve(key, policy, timeToLive, System.nanoTime());
+        } catch (UnknownHostException e) {
+            Entry entry = ENTRIES.get(key);
+            if (entry != null) {
+                entry.releaseRefresh();
+            }
+        }
+    }
+
+    /**
+     * Resolves a host with the built-in resolver and caches the result. The
+     * expired entries of every host are evicted along the way.
+     *
+     * @param key        The key of the entry.
+     * @param policy     The lookup policy.
+     * @param timeToLive The time-to-live of the entry in nanoseconds.
+     * @param now        The current {@link System#nanoTime()}.
+     * @return The addresses of the host.
+     * @throws UnknownHostException If the host cannot be resolved.
+     */
+    private static List<InetAddress> resolve(Key key, LookupPolicy policy, long timeToLive, long now)
+            throws UnknownHostException {
+        // Hosts no longer looked up would otherwise stay in the cache forever.
+        ENTRIES.values().removeIf(entry -> now - entry.expiresAt >= 0);
+        List<InetAddress> addresses = builtinResolver.lookupByName(key.host, policy).toList();
+        ENTRIES.put(key, new Entry(addresses, now + (long) (timeToLive * REFRESH_AHEAD), now + timeToLive));
+        return addresses;
+    }
+
+    /**
+     * The key of a cached entry.
+     *
+     * @param host            The host name.
+     * @param characteristics The characteristics of the lookup policy.
+     */
+    private record Key(String host, int characteristics) {
+    }
+
+    /**
+     * A cached lookup result.
+     */
+    private static final class Entry {
+        /**
+         * The addresses of the host.
+         */
+        private final List<InetAddress> addresses;
+
+        /**
+         * The {@link System#nanoTime()} after which a lookup refreshes the entry.
+         */
+        private final long refreshAt;
+
+        /**
+         * The {@link System#nanoTime()} at which the entry expires.
+         */
+        private final long expiresAt;
+
+        /**
+         * Whether a refresh of the entry is in progress.
+         */
+        private volatile boolean refreshing;
+
+        /**
+         * Constructs a new entry.
+         *
+         * @param addresses The addresses of the host.
+         * @param refreshAt The time after which a lookup refreshes the entry.
+         * @param expiresAt The time at which the entry expires.
+         */
+        Entry(List<InetAddress> addresses, long refreshAt, long expiresAt) {
+            this.addresses = addresses;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Claims the refresh of the entry.
+         *
+         * @return {@code true} if no other refresh is in progress.
+         */
+        synchronized boolean claimRefresh() {
+            if (refreshing) {
+                return false;
+            }
+            refreshing = true;
+            return true;
+        }
+
+        /**
+         * Releases the refresh of the entry after a failure.
+         */
+        synchronized void releaseRefresh() {
+            refreshing = false;
+        }
+    }
+}